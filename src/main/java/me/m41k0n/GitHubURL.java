@@ -2,6 +2,7 @@ package me.m41k0n;
 
 public enum GitHubURL {
 
+    USER("https://api.github.com/user"),
     FOLLOWERS("https://api.github.com/user/followers"),
     FOLLOWING("https://api.github.com/user/following");
 
@@ -3,6 +3,7 @@ package me.m41k0n.command;
 import me.m41k0n.model.User;
 import me.m41k0n.service.GitHubService;
 import me.m41k0n.service.ListService;
+import me.m41k0n.service.UnfollowJob;
 
 import java.time.Instant;
 import java.util.*;
@@ -138,8 +139,12 @@ public class SelectFollowingCommand implements Command<Void> {
                             var entity = listService.create(tempName, new ArrayList<>(selected));
                             listIdToApply = entity.getId();
                         }
-                        Map<String, Object> result = listService.apply(listIdToApply, action, skipProcessed);
-                        System.out.println("Resultado: applied=" + result.get("applied") + ", skipped=" + result.get("skipped") + ", dryRun=" + result.get("dryRun"));
+                        UnfollowJob job = listService.apply(listIdToApply, action, skipProcessed);
+                        System.out.println("Job " + job.getId() + " agendado; aguardando as escritas...");
+                        Map<String, Object> result = awaitJob(job);
+                        int skipped = job.getSkippedExcluded() + job.getSkippedAlreadyInState() + job.getSkippedProcessed();
+                        System.out.println("Resultado (" + result.get("status") + "): applied=" + job.getDone() + ", skipped=" + skipped
+                                + ", failed=" + job.getFailed() + ", dryRun=" + job.isDryRun());
                     } catch (Exception ex) {
                         System.out.println("❌ Erro ao aplicar ação: " + ex.getMessage());
                     }
@@ -153,6 +158,20 @@ public class SelectFollowingCommand implements Command<Void> {
         }
     }
 
+    // O apply roda como job em background; no console, acompanha o progresso até ele terminar.
+    private static Map<String, Object> awaitJob(UnfollowJob job) throws InterruptedException {
+        Object lastProcessed = null;
+        while (!job.isFinished()) {
+            Thread.sleep(1000);
+            Map<String, Object> progress = job.describe();
+            if (!Objects.equals(progress.get("processed"), lastProcessed)) {
+                lastProcessed = progress.get("processed");
+                System.out.println("  progresso: " + lastProcessed + "/" + progress.get("total"));
+            }
+        }
+        return job.describe();
+    }
+
     private static String nullToEmpty(String s) { return s == null ? "" : s; }
 
     private static int parsePositiveIntOrDefault(String s, int def) {
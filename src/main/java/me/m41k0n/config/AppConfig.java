@@ -1,11 +1,16 @@
 package me.m41k0n.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class AppConfig {
@@ -15,6 +20,52 @@ public class AppConfig {
         return HttpClient.newHttpClient();
     }
 
+    /**
+     * Executor compartilhado para buscar páginas da API do GitHub em paralelo.
+     * O tamanho do pool é o limite global de requisições de paginação simultâneas.
+     */
+    @Bean(name = "githubPageExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService githubPageExecutor(@Value("${app.github.page-concurrency:4}") int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), namedDaemonThreads("gh-page-"));
+    }
+
+    /**
+     * Executor das varreduras completas (followers e following em paralelo). Cada varredura apenas
+     * aguarda as páginas do githubPageExecutor, então os dois pools não disputam threads entre si.
+     */
+    @Bean(name = "graphScanExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService graphScanExecutor(@Value("${app.github.scan-concurrency:4}") int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(2, concurrency), namedDaemonThreads("gh-scan-"));
+    }
+
+    /**
+     * Executor do enriquecimento de usuários em /api/filter (lotes GraphQL).
+     * O pool é o limite global; cada execução ainda se limita a app.github.enrichment.per-run lotes simultâneos.
+     */
+    @Bean(name = "enrichmentExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService enrichmentExecutor(@Value("${app.github.enrichment.pool-size:8}") int poolSize) {
+        return Executors.newFixedThreadPool(Math.max(1, poolSize), namedDaemonThreads("gh-enrich-"));
+    }
+
+    /**
+     * Executor dos jobs assíncronos de escritas em massa. Jobs pausados devolvem suas threads (o resume
+     * agenda novos workers), então o pool só precisa comportar os jobs rodando ao mesmo tempo
+     * (app.jobs.unfollow.per-job workers cada).
+     */
+    @Bean(name = "unfollowJobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService unfollowJobExecutor(@Value("${app.jobs.unfollow.pool-size:4}") int poolSize) {
+        return Executors.newFixedThreadPool(Math.max(2, poolSize), namedDaemonThreads("unfollow-job-"));
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -1,5 +1,6 @@
 package me.m41k0n.controller;
 
+import me.m41k0n.service.EnrichmentCache;
 import me.m41k0n.service.ExportService;
 import me.m41k0n.service.GitHubInsightsService;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +17,13 @@ public class FilterController {
 
     private final GitHubInsightsService insightsService;
     private final ExportService exportService;
+    private final EnrichmentCache enrichmentCache;
 
-    public FilterController(GitHubInsightsService insightsService, ExportService exportService) {
+    public FilterController(GitHubInsightsService insightsService, ExportService exportService,
+                            EnrichmentCache enrichmentCache) {
         this.insightsService = insightsService;
         this.exportService = exportService;
+        this.enrichmentCache = enrichmentCache;
     }
 
     /**
@@ -28,6 +32,7 @@ public class FilterController {
      * Descrição: enriquece cada usuário com métricas (atividade pública, último push, followers, repos,
      * linguagens, relação de follow, estimativa de contribuições) e retorna somente os que atendem
      * aos critérios informados. Pode também exportar o resultado da página em CSV/JSON.
+     * As métricas são servidas do cache de enriquecimento enquanto dentro do TTL de cada campo.
      *
      * Parâmetros (query):
      * - page (int=1), size (int=25)
@@ -36,7 +41,8 @@ public class FilterController {
      * - format? (csv|json) — quando presente, retorna arquivo ao invés de JSON
      *
      * Respostas:
-     * - 200 application/json (sem format): { totalCandidates, totalMatched, page, size, users: EnrichedUser[] }
+     * - 200 application/json (sem format): { totalCandidates, totalMatched, page, size, users: EnrichedUser[],
+     *   enrichmentErrors: { login: motivo } } — usuários que não puderam ser enriquecidos ficam fora de users
      * - 200 arquivo (com format): CSV/JSON com os usuários enriquecidos, usando Content-Disposition para download
      */
     @GetMapping("/evaluate")
@@ -79,7 +85,7 @@ public class FilterController {
      * página atual do seu following e retorna os resultados enriquecidos.
      *
      * Parâmetros: page (int=1), size (int=25)
-     * Resposta 200 (application/json): { totalCandidates, totalMatched, page, size, users }
+     * Resposta 200 (application/json): { totalCandidates, totalMatched, page, size, users, enrichmentErrors }
      */
     @GetMapping("/smart-suggest")
     public ResponseEntity<Map<String, Object>> smartSuggest(@RequestParam(defaultValue = "1") int page,
@@ -88,6 +94,36 @@ public class FilterController {
         return buildEvaluateJsonResponse(result);
     }
 
+    /**
+     * GET /api/filter/cache — estatísticas do cache de enriquecimento.
+     *
+     * Resposta 200 (application/json): { memoryEntries, hits, misses, ttlSeconds: { followers, repositories, ... } }
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(enrichmentCache.stats());
+    }
+
+    /**
+     * DELETE /api/filter/cache — invalida o cache de enriquecimento (memória e SQLite).
+     *
+     * Parâmetros: login? — quando presente, invalida apenas esse usuário.
+     * Resposta 200 (application/json): { "message": string, "login"?: string }
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Map<String, Object>> invalidateCache(@RequestParam(required = false) String login) {
+        Map<String, Object> resp = new HashMap<>();
+        if (login != null && !login.isBlank()) {
+            enrichmentCache.invalidate(login);
+            resp.put("message", "Cache de enriquecimento invalidado para o usuário");
+            resp.put("login", login);
+        } else {
+            enrichmentCache.invalidateAll();
+            resp.put("message", "Cache de enriquecimento invalidado");
+        }
+        return ResponseEntity.ok(resp);
+    }
+
     private ResponseEntity<?> buildExportResponse(int page, String format,
                                                   ExportService.ExportFormat exportFormat,
                                                   me.m41k0n.service.GitHubInsightsService.PageResult result) {
@@ -114,6 +150,7 @@ public class FilterController {
         resp.put("page", result.page);
         resp.put("size", result.size);
         resp.put("users", result.users);
+        resp.put("enrichmentErrors", result.enrichmentErrors);
         return ResponseEntity.ok(resp);
     }
 }
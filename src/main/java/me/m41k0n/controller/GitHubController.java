@@ -1,12 +1,19 @@
 package me.m41k0n.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import me.m41k0n.model.User;
 import me.m41k0n.service.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,10 +25,18 @@ public class GitHubController {
     
     private final GitHubService gitHubService;
     private final ExportService exportService;
+    private final UnfollowJobService unfollowJobService;
+    private final FollowGraphSnapshotService snapshotService;
 
-    public GitHubController(GitHubService gitHubService, ExportService exportService) {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final ObjectWriter NDJSON_WRITER = new ObjectMapper().writer();
+
+    public GitHubController(GitHubService gitHubService, ExportService exportService,
+                            UnfollowJobService unfollowJobService, FollowGraphSnapshotService snapshotService) {
         this.gitHubService = gitHubService;
         this.exportService = exportService;
+        this.unfollowJobService = unfollowJobService;
+        this.snapshotService = snapshotService;
     }
     /**
      * GET /api/non-followers — retorna a lista completa (não paginada) de usuários que você segue
@@ -30,15 +45,19 @@ public class GitHubController {
      * Descrição: executa apenas leituras na API do GitHub para compor o conjunto de não-seguidores.
      * O resultado pode ser grande — preferir o endpoint paginado (/api/non-followers/preview) para UIs.
      *
-     * Resposta 200 (application/json): { "count": number, "users": User[] }
+     * Servido a partir do snapshot em cache do grafo (ver /api/graph); "snapshot" informa id e idade.
+     *
+     * Resposta 200 (application/json): { "count": number, "users": User[], "snapshot": { id, takenAt, ageSeconds, ... } }
      */
     @GetMapping("/non-followers")
     public ResponseEntity<Map<String, Object>> getNonFollowers() {
         try {
-            List<User> nonFollowers = gitHubService.getNonFollowers();
+            PreviewReport report = gitHubService.previewNonFollowers(1, Integer.MAX_VALUE);
+            List<User> nonFollowers = report.getPage();
             Map<String, Object> response = new HashMap<>();
             response.put("count", nonFollowers.size());
             response.put("users", nonFollowers);
+            putSnapshot(response, report.getSnapshot());
             return ResponseEntity.ok(response);
         } catch (JsonProcessingException e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -47,6 +66,44 @@ public class GitHubController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+    /**
+     * GET /api/non-followers/stream — mesmo conjunto de /api/non-followers, em streaming NDJSON
+     * (application/x-ndjson, uma linha JSON por usuário: { login, html_url }).
+     *
+     * Com snapshot válido, envia tudo dele imediatamente. Senão, lê followers por completo e então emite os
+     * não-seguidores de cada página de following assim que ela chega (ordem de chegada, não a da lista),
+     * publicando o grafo lido como novo snapshot no final. O primeiro resultado sai após uma página de
+     * following, não após a varredura completa.
+     *
+     * Se a varredura falhar no meio, a última linha é { "error", "message" } (o status 200 já foi enviado).
+     */
+    @GetMapping(value = "/non-followers/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamNonFollowers() {
+        StreamingResponseBody body = out -> {
+            try {
+                snapshotService.streamNonFollowers(users -> writeLines(out, users));
+            } catch (RuntimeException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Erro ao ler o grafo de follows");
+                error.put("message", e.getMessage());
+                writeLines(out, List.of(error));
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private void writeLines(OutputStream out, List<?> rows) {
+        try {
+            for (Object row : rows) {
+                out.write(NDJSON_WRITER.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * GET /api/non-followers/preview — consulta paginada (somente leitura) dos não-seguidores.
      *
@@ -55,9 +112,14 @@ public class GitHubController {
      * como arquivo CSV ou JSON para download (attachment).
      *
      * Parâmetros: page (int=1), size (int=25), format? (csv|json)
+     * Todas as páginas são servidas do mesmo snapshot em cache do grafo (TTL app.graph.snapshot-ttl-seconds),
+     * então paginar não refaz a varredura completa.
+     *
      * Respostas:
-     * - 200 JSON: { totalFollowers, totalFollowing, totalNonFollowers, page, size, users[], dryRunEnabled }
-     * - 200 arquivo: CSV/JSON da página de usuários, com Content-Type/Disposition apropriados.
+     * - 200 JSON: { totalFollowers, totalFollowing, totalNonFollowers, page, size, users[], dryRunEnabled,
+     *   timings: { followersMs, followingMs, totalMs }, snapshot: { id, takenAt, ageSeconds, ... } }
+     * - 200 arquivo: CSV/JSON da página de usuários, com Content-Type/Disposition apropriados e
+     *   headers X-Snapshot-Id / X-Snapshot-Age.
      */
     @GetMapping("/non-followers/preview")
     public ResponseEntity<?> previewNonFollowers(@RequestParam(defaultValue = "1") int page, @RequestParam(defaultValue = "25") int size, @RequestParam(required = false) String format) {
@@ -76,33 +138,32 @@ public class GitHubController {
         }
     }
     /**
-     * DELETE /api/unfollow-non-followers — executa unfollow em massa nos não-seguidores.
+     * DELETE /api/unfollow-non-followers — agenda o unfollow em massa nos não-seguidores como job assíncrono.
      *
      * Descrição: respeita o modo dry-run. Quando ativo, não faz writes na API do GitHub, apenas
      * registra em histórico o que seria feito e emite logs/resumos (e-mails opcionais conforme config).
+     * Retorna imediatamente; acompanhe o progresso em GET /api/jobs/{jobId} (pausar/cancelar em /api/jobs).
      *
-     * Resposta 200 (application/json): { "message": string, "warning": string }
+     * Resposta 202 (application/json): { "jobId": string, "status": string, "statusUrl": string, "warning": string }
      */
     @DeleteMapping("/unfollow-non-followers")
     public ResponseEntity<Map<String, String>> unfollowNonFollowers() {
-        try {
-            gitHubService.unfollowNonFollowers();
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Unfollow realizado com sucesso em todos que não te seguem");
-            response.put("warning", "⚠️ Use o endpoint /api/unfollow/execute para operações mais seguras com confirmação");
-            return ResponseEntity.ok(response);
-        } catch (JsonProcessingException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Erro ao processar resposta da API do GitHub");
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        UnfollowJob job = unfollowJobService.startUnfollowNonFollowers();
+        Map<String, String> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus().name());
+        response.put("statusUrl", "/api/jobs/" + job.getId());
+        response.put("warning", "⚠️ Use o endpoint /api/unfollow/execute para operações mais seguras com confirmação");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
     private ResponseEntity<?> buildPreviewExportResponse(int page, me.m41k0n.service.PreviewReport report, ExportService.ExportFormat exportFormat) throws Exception {
         String exportedData = exportService.exportToFormat(report.getPage(), exportFormat);
+        GraphSnapshot snapshot = report.getSnapshot();
         return ResponseEntity.ok()
                 .header("Content-Type", exportFormat.getMimeType())
+                .header("X-Snapshot-Id", snapshot != null ? String.valueOf(snapshot.version()) : "")
+                .header("X-Snapshot-Age", snapshot != null ? String.valueOf(snapshot.ageSeconds()) : "")
                 .header("Content-Disposition", String.format("attachment; filename=\"non-followers-page-%d.%s\"", page, exportFormat.name().toLowerCase()))
                 .body(exportedData);
     }
@@ -116,6 +177,21 @@ public class GitHubController {
         resp.put("size", report.getPageSize());
         resp.put("users", report.getPage());
         resp.put("dryRunEnabled", gitHubService.isDryRunEnabled());
+        Map<String, Object> timings = new HashMap<>();
+        timings.put("followersMs", report.getFollowersFetchMs());
+        timings.put("followingMs", report.getFollowingFetchMs());
+        timings.put("totalMs", report.getTotalFetchMs());
+        resp.put("timings", timings);
+        putSnapshot(resp, report.getSnapshot());
         return ResponseEntity.ok(resp);
     }
+
+    private void putSnapshot(Map<String, Object> resp, GraphSnapshot snapshot) {
+        if (snapshot == null) return;
+        Map<String, Object> info = new HashMap<>();
+        info.put("id", snapshot.version());
+        info.put("takenAt", snapshot.takenAt().toString());
+        info.put("ageSeconds", snapshot.ageSeconds());
+        resp.put("snapshot", info);
+    }
 }
@@ -0,0 +1,50 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.FollowGraphSnapshotService;
+import me.m41k0n.service.GraphChangeDetector;
+import me.m41k0n.service.GraphSnapshot;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/graph")
+@CrossOrigin(origins = "*")
+public class GraphController {
+
+    private final FollowGraphSnapshotService snapshotService;
+
+    public GraphController(FollowGraphSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * GET /api/graph/snapshot — informações do snapshot do grafo em memória, sem disparar varredura.
+     *
+     * Resposta 200 (application/json):
+     * { "ttlSeconds": number, "snapshot": { id, takenAt, ageSeconds, followers, following, nonFollowers, timings } | null,
+     *   "lastChangeCheck": { change (NONE|FOLLOWERS|FOLLOWING|BOTH), followers, following, requests, checkedAt } | null }
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        GraphSnapshot s = snapshotService.peek();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("ttlSeconds", snapshotService.ttl().toSeconds());
+        resp.put("snapshot", s != null ? s.describe() : null);
+        GraphChangeDetector.Check check = snapshotService.lastCheck();
+        resp.put("lastChangeCheck", check != null ? check.describe() : null);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * POST /api/graph/refresh — força uma nova varredura completa de followers/following.
+     *
+     * Resposta 200 (application/json): { id, takenAt, ageSeconds, followers, following, nonFollowers, timings }
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        return ResponseEntity.ok(snapshotService.refresh().describe());
+    }
+}
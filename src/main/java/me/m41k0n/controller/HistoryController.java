@@ -5,8 +5,11 @@ import me.m41k0n.service.HistoryService;
 import me.m41k0n.service.ExportService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -29,15 +32,30 @@ public class HistoryController {
      * - username: login a filtrar
      * - action: "follow" | "unfollow"
      * - since: instante ISO-8601 (inclui eventos a partir deste instante)
+     * - limit: tamanho da página (máx. 1000); sem limit retorna tudo, como antes
+     * - after: cursor opaco devolvido pela página anterior
      *
      * Resposta 200: array de HistoryEntity com campos { id, username, action, timestamp, sourceListId, dryRun }.
+     * Com limit, a ordem é do mais recente para o mais antigo e, havendo próxima página, o cursor vem no header
+     * X-Next-Cursor e o link completo em Link (rel="next").
      */
     @GetMapping
     public ResponseEntity<List<HistoryEntity>> getHistory(@RequestParam(required = false) String username,
                                                           @RequestParam(required = false) String action,
-                                                          @RequestParam(required = false) String since) {
+                                                          @RequestParam(required = false) String since,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String after) {
         Instant sinceInstant = parseInstantOrNull(since);
-        return ResponseEntity.ok(historyService.search(username, action, sinceInstant));
+        if (limit == null) {
+            return ResponseEntity.ok(historyService.search(username, action, sinceInstant));
+        }
+        var page = historyService.searchPage(username, action, sinceInstant, after, limit);
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor())
+                    .header("Link", "<" + nextLink(page.nextCursor()) + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
     }
 
     /**
@@ -47,37 +65,25 @@ public class HistoryController {
      * - username, action (follow|unfollow), since (ISO-8601)
      * - format: csv | json (obrigatório aqui; default csv)
      *
-     * Resposta 200: arquivo (attachment) com Content-Type e Content-Disposition apropriados.
+     * Resposta 200: arquivo (attachment) com Content-Type e Content-Disposition apropriados. O corpo é
+     * escrito em streaming direto de um cursor no banco, então a memória não depende do tamanho do histórico.
      */
     @GetMapping("/export")
-    public ResponseEntity<?> exportHistory(@RequestParam(required = false) String username,
+    public ResponseEntity<StreamingResponseBody> exportHistory(@RequestParam(required = false) String username,
                                            @RequestParam(required = false) String action,
                                            @RequestParam(required = false) String since,
                                            @RequestParam(defaultValue = "csv") String format) {
-        try {
-            Instant sinceInstant = parseInstantOrNull(since);
-            List<HistoryEntity> items = historyService.search(username, action, sinceInstant);
-
-            var exportFormat = me.m41k0n.service.ExportService.ExportFormat.fromString(format);
-            if (exportFormat == null) {
-                return ResponseEntity.badRequest().body("Formato inválido. Use csv ou json.");
-            }
-
-            return buildExportHistoryResponse(items, exportFormat, action, format);
-        } catch (Exception ex) {
-            return ResponseEntity.internalServerError().body("Erro ao exportar histórico: " + ex.getMessage());
+        Instant sinceInstant = parseInstantOrNull(since);
+        var exportFormat = ExportService.ExportFormat.fromString(format);
+        if (exportFormat == null) {
+            throw new IllegalArgumentException("Formato inválido. Use csv ou json.");
         }
-    }
 
-    private Instant parseInstantOrNull(String iso) {
-        return (iso != null && !iso.isBlank()) ? Instant.parse(iso) : null;
-    }
-
-    private ResponseEntity<?> buildExportHistoryResponse(List<HistoryEntity> items,
-                                                         me.m41k0n.service.ExportService.ExportFormat exportFormat,
-                                                         String action,
-                                                         String format) throws Exception {
-        String body = exportService.exportHistoryToFormat(items, exportFormat);
+        StreamingResponseBody body = out -> {
+            try (var writer = exportService.historyWriter(exportFormat, out)) {
+                historyService.forEach(username, action, sinceInstant, writer::write);
+            }
+        };
         String disposition = String.format("attachment; filename=history-%s.%s",
                 action == null ? "all" : action,
                 format.toLowerCase());
@@ -86,4 +92,16 @@ public class HistoryController {
                 .header("Content-Disposition", disposition)
                 .body(body);
     }
+
+    private static String nextLink(String cursor) {
+        return ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("after", cursor).toUriString();
+    }
+
+    private Instant parseInstantOrNull(String iso) {
+        try {
+            return (iso != null && !iso.isBlank()) ? Instant.parse(iso) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parâmetro since inválido (use ISO-8601): " + iso);
+        }
+    }
 }
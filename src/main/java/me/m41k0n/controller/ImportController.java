@@ -3,10 +3,13 @@ package me.m41k0n.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import me.m41k0n.service.ExclusionService;
-import me.m41k0n.service.GitHubService;
 import me.m41k0n.service.HistoryService;
+import me.m41k0n.service.MutationQueue;
+import me.m41k0n.service.UnfollowJob;
+import me.m41k0n.service.UnfollowJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,20 +25,22 @@ public class ImportController {
 
     private static final Logger log = LoggerFactory.getLogger(ImportController.class);
 
-    private final GitHubService gitHubService;
+    private static final String IMPORT_SOURCE = "IMPORT_REFOLLOW";
+
+    private final UnfollowJobService jobService;
     private final ExclusionService exclusionService;
     private final HistoryService historyService;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public ImportController(GitHubService gitHubService, ExclusionService exclusionService, HistoryService historyService) {
-        this.gitHubService = gitHubService;
+    public ImportController(UnfollowJobService jobService, ExclusionService exclusionService, HistoryService historyService) {
+        this.jobService = jobService;
         this.exclusionService = exclusionService;
         this.historyService = historyService;
     }
 
     // Endpoints legados mantidos (use /api/import/users com action=refollow|exclude)
     /**
-     * LEGACY: importe usernames e execute refollow.
+     * LEGACY: importe usernames e execute refollow (como job; responde 202 igual a /api/import/users).
      * Prefira usar: POST /api/import/users?action=refollow
      */
     @Deprecated
@@ -63,7 +68,7 @@ public class ImportController {
      * no corpo da requisição (text/plain CSV ou application/json array de strings) e executa a
      * ação especificada por query param:
      * - action=exclude → adiciona os usuários à lista especial de exclusão (EXCLUDE_NEXT_RUN)
-     * - action=refollow → executa follow para os usuários informados
+     * - action=refollow → agenda um job que executa follow para os usuários informados
      *
      * Parâmetros (query):
      * - action: "refollow" | "exclude" (obrigatório)
@@ -75,9 +80,13 @@ public class ImportController {
      * - text/plain (CSV) no corpo, com cabeçalho opcional "login"
      * - application/json no corpo: array de strings com usernames
      *
-     * Resposta 200 (application/json):
-     * - action=exclude → { received, added }
-     * - action=refollow → { received, applied, skipped, dryRun, details[] }
+     * Respostas (application/json):
+     * - action=exclude → 200 { received, added }
+     * - action=refollow → 202 resumo do job (type IMPORT_REFOLLOW, params.received) com jobId, statusUrl e
+     *   detailsUrl; acompanhe em GET /api/jobs/{jobId} e veja o resultado por usuário em GET /api/jobs/{jobId}/details
+     *
+     * Mudança de contrato (refollow, também em /api/import/refollow): antes respondia 200 com
+     * { received, applied, skipped, dryRun, details[] } ao fim das escritas.
      */
     public ResponseEntity<Map<String, Object>> importUsers(@RequestParam String action,
                                                            @RequestParam(defaultValue = "true") boolean skipProcessed,
@@ -105,41 +114,18 @@ public class ImportController {
 
     private ResponseEntity<Map<String, Object>> handleRefollow(List<String> usernames, boolean skipProcessed) {
         List<String> norm = normalizeUsernames(usernames);
-        boolean dryRun = gitHubService.isDryRunEnabled();
-        int applied = 0;
-        int skipped = 0;
-        List<Map<String, Object>> details = new ArrayList<>();
-        for (String u : norm) {
-            if (u == null || u.isBlank()) continue;
-            if (skipProcessed && historyService.alreadyProcessed(u, "follow")) {
-                skipped++;
-                details.add(detail(u, "skipped", "already-follow"));
-                continue;
-            }
-            try {
-                boolean opDry = gitHubService.follow(u, "IMPORT_REFOLLOW");
-                applied++;
-                details.add(detail(u, opDry ? "dry-run" : "followed", null));
-            } catch (Exception e) {
-                details.add(detail(u, "error", e.getMessage()));
-                log.warn("[IMPORT-REFOLLOW] Falha para {}: {}", u, e.getMessage());
-            }
-        }
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("received", norm.size());
-        resp.put("applied", applied);
-        resp.put("skipped", skipped);
-        resp.put("dryRun", dryRun);
-        resp.put("details", details);
-        return ResponseEntity.ok(resp);
-    }
-
-    private Map<String, Object> detail(String username, String status, String message) {
-        Map<String, Object> m = new HashMap<>();
-        m.put("username", username);
-        m.put("status", status);
-        if (message != null) m.put("message", message);
-        return m;
+        Map<String, Object> params = Map.of("received", norm.size(), "skipProcessed", skipProcessed);
+        UnfollowJob job = jobService.start(UnfollowJob.Type.IMPORT_REFOLLOW, params, () -> {
+            Set<String> processed = skipProcessed ? historyService.processedUsernames(norm, "follow") : Set.of();
+            List<UnfollowJob.Task> tasks = norm.stream()
+                    .map(u -> processed.contains(u)
+                            ? UnfollowJob.Task.skip(u, MutationQueue.Kind.FOLLOW, IMPORT_SOURCE, "already-follow")
+                            : new UnfollowJob.Task(u, MutationQueue.Kind.FOLLOW, IMPORT_SOURCE, null))
+                    .toList();
+            return new UnfollowJobService.Prepared(tasks, null, null);
+        });
+        log.info("[IMPORT-REFOLLOW] job {} agendado para {} usuários", job.getId(), norm.size());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.describeAccepted());
     }
 
     private List<String> usernamesFromFile(MultipartFile file) {
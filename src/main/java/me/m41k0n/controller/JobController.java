@@ -0,0 +1,114 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.UnfollowJob;
+import me.m41k0n.service.UnfollowJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    private final UnfollowJobService jobService;
+
+    public JobController(UnfollowJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * GET /api/jobs — lista os jobs conhecidos (mais recentes primeiro).
+     *
+     * Resposta 200 (application/json): { "jobs": Job[] }
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list() {
+        List<Map<String, Object>> jobs = jobService.list().stream().map(UnfollowJob::describe).toList();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("jobs", jobs);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * GET /api/jobs/{id} — progresso de um job.
+     *
+     * Resposta 200 (application/json): { id, type (UNFOLLOW_NON_FOLLOWERS|LIST_APPLY|UNDO|IMPORT_REFOLLOW), status,
+     * dryRun, params, snapshotId, plan, total, processed, done, failed, skippedExcluded, skippedAlreadyInState,
+     * skippedProcessed, failures[{ username, action, error }] (até 100; também em GET /api/mutations/dead-letters),
+     * createdAt, startedAt, finishedAt, throughputPerSecond, etaSeconds, error? }
+     * Resposta 404: job desconhecido (ou já descartado da memória).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
+        return jobService.find(id)
+                .map(job -> ResponseEntity.ok(job.describe()))
+                .orElseGet(() -> notFound(id));
+    }
+
+    /**
+     * GET /api/jobs/{id}/details — resultado por usuário, na ordem em que foram processados.
+     *
+     * Parâmetros: offset (default 0), limit (default 1000).
+     * Resposta 200 (application/json): { id, total, offset, items: [{ username, action, status
+     * (applied|dry-run|skipped|failed), wasFollowing?, skippedReason?, error?, timestamp }] }
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<Map<String, Object>> details(@PathVariable String id,
+                                                       @RequestParam(defaultValue = "0") int offset,
+                                                       @RequestParam(defaultValue = "1000") int limit) {
+        if (offset < 0 || limit < 1) throw new IllegalArgumentException("offset must be >= 0 and limit >= 1");
+        return jobService.find(id)
+                .map(job -> {
+                    Map<String, Object> resp = new HashMap<>();
+                    resp.put("id", id);
+                    resp.put("total", job.detailCount());
+                    resp.put("offset", offset);
+                    resp.put("items", job.details(offset, limit));
+                    return ResponseEntity.ok(resp);
+                })
+                .orElseGet(() -> notFound(id));
+    }
+
+    /**
+     * POST /api/jobs/{id}/pause — pausa o job antes do próximo usuário.
+     * POST /api/jobs/{id}/resume — retoma um job pausado.
+     * POST /api/jobs/{id}/cancel — cancela o job; escritas já feitas não são desfeitas.
+     *
+     * Resposta 200: estado atual do job. 409 quando o job já terminou. 404 quando desconhecido.
+     */
+    @PostMapping("/{id}/pause")
+    public ResponseEntity<Map<String, Object>> pause(@PathVariable String id) {
+        return control(id, jobService::pause);
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resume(@PathVariable String id) {
+        return control(id, jobService::resume);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String id) {
+        return control(id, jobService::cancel);
+    }
+
+    private ResponseEntity<Map<String, Object>> control(String id, Predicate<UnfollowJob> action) {
+        return jobService.find(id)
+                .map(job -> action.test(job)
+                        ? ResponseEntity.ok(job.describe())
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(job.describe()))
+                .orElseGet(() -> notFound(id));
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String id) {
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("error", "Job não encontrado");
+        resp.put("id", id);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(resp);
+    }
+}
@@ -5,6 +5,7 @@ import me.m41k0n.service.ListService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,12 +26,25 @@ public class ListController {
     }
 
     /**
-     * GET /api/lists — lista todas as listas nomeadas com metadados e contagem de itens.
-     * Não retorna os itens (usernames) neste endpoint para ser leve.
+     * GET /api/lists — lista as listas nomeadas com metadados e contagem de itens.
+     * Não retorna os itens (usernames) neste endpoint para ser leve; as contagens vêm de uma única
+     * consulta agregada.
+     *
+     * Parâmetros: page? (1-based), size? (int=50), sort (name|createdAt|updatedAt|count = name), direction (asc|desc = asc)
+     * Sem page/size retorna todas as listas. Resposta 200: array de { id, name, createdAt, updatedAt, count },
+     * com o total de listas no header X-Total-Count.
      */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAll() {
-        return ResponseEntity.ok(listService.findAllWithCounts());
+    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam(required = false) Integer page,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @RequestParam(defaultValue = "name") String sort,
+                                                            @RequestParam(defaultValue = "asc") String direction) {
+        int pageNumber = page != null ? page : 1;
+        int pageSize = size != null ? size : (page != null ? 50 : Integer.MAX_VALUE);
+        var result = listService.findAllWithCounts(pageNumber, pageSize, sort, direction);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                .body(result.getContent());
     }
 
     public record CreateListRequest(String name, List<String> items) {}
@@ -46,16 +60,32 @@ public class ListController {
 
     /**
      * GET /api/lists/{id} — recupera detalhes da lista (inclui usernames em items).
+     *
+     * Parâmetros opcionais: limit (máx. 1000) e after (cursor opaco). Com limit, items traz uma página em ordem
+     * alfabética e a resposta inclui nextCursor e next (link da próxima página), ambos null na última página;
+     * o link também vai no header Link (rel="next"). Sem limit retorna todos os itens, como antes.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
-        return ResponseEntity.ok(listService.get(id));
+    public ResponseEntity<Map<String, Object>> get(@PathVariable String id,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return ResponseEntity.ok(listService.get(id));
+        }
+        Map<String, Object> page = listService.getPage(id, after, limit);
+        Object cursor = page.get("nextCursor");
+        String next = cursor == null ? null
+                : ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("after", cursor).toUriString();
+        page.put("next", next);
+        var response = ResponseEntity.ok();
+        if (next != null) response.header("Link", "<" + next + ">; rel=\"next\"");
+        return response.body(page);
     }
 
     public record UpdateListRequest(String name, List<String> items) {}
 
     /**
-     * PUT /api/lists/{id} — atualiza nome/itens da lista (sobrescreve itens).
+     * PUT /api/lists/{id} — atualiza nome/itens da lista (substitui os itens; só a diferença é gravada).
      */
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> update(@PathVariable String id, @RequestBody UpdateListRequest req) {
@@ -63,6 +93,17 @@ public class ListController {
         return ResponseEntity.ok(listService.get(id));
     }
 
+    public record ModifyItemsRequest(List<String> add, List<String> remove) {}
+
+    /**
+     * PATCH /api/lists/{id}/items — adiciona/remove usernames sem reescrever a lista inteira.
+     * Corpo: { add?: [username], remove?: [username] }. Resposta 200: { id, added, removed, count, updatedAt }.
+     */
+    @PatchMapping("/{id}/items")
+    public ResponseEntity<Map<String, Object>> modifyItems(@PathVariable String id, @RequestBody ModifyItemsRequest req) {
+        return ResponseEntity.ok(listService.modifyItems(id, req.add(), req.remove()));
+    }
+
     /**
      * DELETE /api/lists/{id} — remove lista e seus itens.
      */
@@ -73,13 +114,22 @@ public class ListController {
     }
 
     /**
-     * POST /api/lists/{id}/apply — aplica follow/unfollow em lote, com opção de pular já processados.
+     * POST /api/lists/{id}/apply — agenda follow/unfollow em lote como job assíncrono, com opção de pular já processados.
+     *
+     * Descrição: retorna imediatamente; acompanhe em GET /api/jobs/{jobId} (applied = done, skipped por motivo,
+     * failed, failures[], plan) e veja o resultado por usuário em GET /api/jobs/{jobId}/details.
+     *
+     * Resposta 202: resumo do job (type LIST_APPLY) com jobId, statusUrl e detailsUrl.
+     * Resposta 400: ação inválida. 404: lista inexistente.
+     *
+     * Mudança de contrato: antes respondia 200 com { applied, skipped, failed, dryRun, details[], plan } ao fim das
+     * escritas; o resultado por usuário agora fica em GET /api/jobs/{jobId}/details.
      */
     @PostMapping("/{id}/apply")
     public ResponseEntity<Map<String, Object>> apply(@PathVariable String id,
                                                      @RequestParam String action,
                                                      @RequestParam(defaultValue = "true") boolean skipProcessed) {
-        return ResponseEntity.ok(listService.apply(id, action, skipProcessed));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(listService.apply(id, action, skipProcessed).describeAccepted());
     }
     // Export para auditoria/portabilidade
     @GetMapping("/{id}/export")
@@ -0,0 +1,86 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.GitHubService;
+import me.m41k0n.service.MutationQueue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/mutations")
+@CrossOrigin(origins = "*")
+public class MutationController {
+
+    private final MutationQueue mutationQueue;
+    private final GitHubService gitHubService;
+
+    public MutationController(MutationQueue mutationQueue, GitHubService gitHubService) {
+        this.mutationQueue = mutationQueue;
+        this.gitHubService = gitHubService;
+    }
+
+    /**
+     * GET /api/mutations — estado da fila de escritas (follow/unfollow).
+     *
+     * Descrição: "effectivePerMinute" fica abaixo de "perMinute" depois de limites secundários do GitHub e
+     * volta aos poucos; "blockedUntil" é a pausa em curso (null quando não há).
+     *
+     * Resposta 200 (application/json):
+     * { perMinute, effectivePerMinute, jitterMs, blockedUntil, deadLetters, queued, sent, retries, rateLimited }
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(mutationQueue.status());
+    }
+
+    /**
+     * GET /api/mutations/dead-letters — escritas que esgotaram as tentativas ou falharam de forma definitiva.
+     *
+     * Resposta 200 (application/json):
+     * { "count": number, "items": [{ action, username, sourceListId, attempts, lastStatus, error, failedAt }] }
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<Map<String, Object>> deadLetters() {
+        List<Map<String, Object>> items = mutationQueue.deadLetters().stream().map(MutationQueue.DeadLetter::describe).toList();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("count", items.size());
+        resp.put("items", items);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * POST /api/mutations/dead-letters/retry — reenvia todas as dead letters pela fila.
+     *
+     * Descrição: as que já estão no estado pedido são descartadas sem chamar o GitHub; as demais só saem da
+     * lista quando o GitHub aceita a escrita. Bloqueia até o reenvio terminar (respeitando o ritmo da fila).
+     *
+     * Resposta 200 (application/json): { retried, applied, skipped, failed }
+     * Resposta 409: dry-run ativo (as dead letters só saem da lista quando a escrita é aceita de verdade).
+     */
+    @PostMapping("/dead-letters/retry")
+    public ResponseEntity<Map<String, Object>> retryDeadLetters() {
+        if (gitHubService.isDryRunEnabled()) {
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("error", "Conflict");
+            resp.put("message", "Dry-run ativo: desative-o para reenviar as dead letters");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(resp);
+        }
+        return ResponseEntity.ok(gitHubService.retryDeadLetters());
+    }
+
+    /**
+     * DELETE /api/mutations/dead-letters — descarta as dead letters.
+     *
+     * Resposta 200 (application/json): { "cleared": number }
+     */
+    @DeleteMapping("/dead-letters")
+    public ResponseEntity<Map<String, Object>> clearDeadLetters() {
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("cleared", mutationQueue.clearDeadLetters());
+        return ResponseEntity.ok(resp);
+    }
+}
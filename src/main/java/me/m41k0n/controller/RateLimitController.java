@@ -0,0 +1,34 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.GitHubRateLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rate-limit")
+@CrossOrigin(origins = "*")
+public class RateLimitController {
+
+    private final GitHubRateLimiter rateLimiter;
+
+    public RateLimitController(GitHubRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * GET /api/rate-limit — estado atual do orçamento de rate limit do GitHub, conforme visto pelo agendador.
+     *
+     * Descrição: valores vêm dos últimos headers X-RateLimit-* (REST) e do objeto rateLimit (GraphQL).
+     * "remaining" é null até a primeira resposta; "queued" indica quantas requisições aguardam orçamento.
+     *
+     * Resposta 200 (application/json):
+     * { "rest": { limit, remaining, resetAt, blockedUntil, pacing, queued },
+     *   "graphql": { limit, remaining, resetAt, blockedUntil, pacing, queued, lastCost } }
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(rateLimiter.status());
+    }
+}
@@ -49,15 +49,13 @@ public class UserFollowingController {
      * Path variable:
      * - username: login do usuário alvo
      *
-     * Resposta 200 (application/json): { "message": string, "dryRun": boolean }
+     * Resposta 200 (application/json): { "message": string, "dryRun": boolean, "skippedReason"?: "already-in-state" }
+     * (skippedReason quando o grafo em cache já mostra que você não segue o usuário; nada é enviado ao GitHub).
      */
     @DeleteMapping("/{username}")
     public ResponseEntity<Map<String, Object>> unfollow(@PathVariable String username) {
-        boolean dryRun = gitHubService.unfollow(username, null);
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("message", "Unfollowed " + username);
-        resp.put("dryRun", dryRun);
-        return ResponseEntity.ok(resp);
+        GitHubService.Outcome outcome = gitHubService.unfollow(username, null);
+        return ResponseEntity.ok(writeResponse(outcome, outcome.isSkipped() ? "Not following " + username : "Unfollowed " + username));
     }
     /**
      * PUT /api/user/following/{username} — segue (follow) um usuário.
@@ -66,14 +64,20 @@ public class UserFollowingController {
      * Path variable:
      * - username: login do usuário alvo
      *
-     * Resposta 200 (application/json): { "message": string, "dryRun": boolean }
+     * Resposta 200 (application/json): { "message": string, "dryRun": boolean, "skippedReason"?: "already-in-state" }
+     * (skippedReason quando o grafo em cache já mostra que você segue o usuário; nada é enviado ao GitHub).
      */
     @PutMapping("/{username}")
     public ResponseEntity<Map<String, Object>> follow(@PathVariable String username) {
-        boolean dryRun = gitHubService.follow(username, null);
+        GitHubService.Outcome outcome = gitHubService.follow(username, null);
+        return ResponseEntity.ok(writeResponse(outcome, outcome.isSkipped() ? "Already following " + username : "Followed " + username));
+    }
+
+    private Map<String, Object> writeResponse(GitHubService.Outcome outcome, String message) {
         Map<String, Object> resp = new HashMap<>();
-        resp.put("message", "Followed " + username);
-        resp.put("dryRun", dryRun);
-        return ResponseEntity.ok(resp);
+        resp.put("message", message);
+        resp.put("dryRun", outcome.isDryRun());
+        if (outcome.isSkipped()) resp.put("skippedReason", GitHubService.ALREADY_IN_STATE);
+        return resp;
     }
 }
@@ -0,0 +1,80 @@
+package me.m41k0n.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "enrichment_cache")
+public class EnrichmentCacheEntity {
+
+    @Id
+    @Column(name = "login", nullable = false, updatable = false)
+    private String login;
+
+    @Column(name = "followers_count")
+    private Integer followersCount;
+
+    @Column(name = "followers_at")
+    private String followersAt; // ISO8601
+
+    @Column(name = "repos_count")
+    private Integer reposCount;
+
+    @Column(name = "last_push_at")
+    private String lastPushAt; // ISO8601
+
+    @Column(name = "repos_at")
+    private String reposAt; // ISO8601
+
+    @Column(name = "languages")
+    private String languages; // separadas por vírgula
+
+    @Column(name = "languages_at")
+    private String languagesAt; // ISO8601
+
+    @Column(name = "is_following_viewer")
+    private Integer isFollowingViewer; // 0/1
+
+    @Column(name = "viewer_is_following")
+    private Integer viewerIsFollowing; // 0/1
+
+    @Column(name = "relationship_at")
+    private String relationshipAt; // ISO8601
+
+    @Column(name = "last_activity")
+    private String lastActivity; // ISO8601
+
+    @Column(name = "contributions")
+    private Integer contributions;
+
+    @Column(name = "activity_at")
+    private String activityAt; // ISO8601
+
+    public String getLogin() { return login; }
+    public void setLogin(String login) { this.login = login; }
+    public Integer getFollowersCount() { return followersCount; }
+    public void setFollowersCount(Integer followersCount) { this.followersCount = followersCount; }
+    public String getFollowersAt() { return followersAt; }
+    public void setFollowersAt(String followersAt) { this.followersAt = followersAt; }
+    public Integer getReposCount() { return reposCount; }
+    public void setReposCount(Integer reposCount) { this.reposCount = reposCount; }
+    public String getLastPushAt() { return lastPushAt; }
+    public void setLastPushAt(String lastPushAt) { this.lastPushAt = lastPushAt; }
+    public String getReposAt() { return reposAt; }
+    public void setReposAt(String reposAt) { this.reposAt = reposAt; }
+    public String getLanguages() { return languages; }
+    public void setLanguages(String languages) { this.languages = languages; }
+    public String getLanguagesAt() { return languagesAt; }
+    public void setLanguagesAt(String languagesAt) { this.languagesAt = languagesAt; }
+    public Integer getIsFollowingViewer() { return isFollowingViewer; }
+    public void setIsFollowingViewer(Integer isFollowingViewer) { this.isFollowingViewer = isFollowingViewer; }
+    public Integer getViewerIsFollowing() { return viewerIsFollowing; }
+    public void setViewerIsFollowing(Integer viewerIsFollowing) { this.viewerIsFollowing = viewerIsFollowing; }
+    public String getRelationshipAt() { return relationshipAt; }
+    public void setRelationshipAt(String relationshipAt) { this.relationshipAt = relationshipAt; }
+    public String getLastActivity() { return lastActivity; }
+    public void setLastActivity(String lastActivity) { this.lastActivity = lastActivity; }
+    public Integer getContributions() { return contributions; }
+    public void setContributions(Integer contributions) { this.contributions = contributions; }
+    public String getActivityAt() { return activityAt; }
+    public void setActivityAt(String activityAt) { this.activityAt = activityAt; }
+}
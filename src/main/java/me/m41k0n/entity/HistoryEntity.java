@@ -33,11 +33,14 @@ public class HistoryEntity {
         if (this.timestamp == null) this.timestamp = Instant.now().toString();
     }
 
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
     public String getAction() { return action; }
     public void setAction(String action) { this.action = action; }
     public String getTimestamp() { return timestamp; }
+    public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
     public String getSourceListId() { return sourceListId; }
     public void setSourceListId(String sourceListId) { this.sourceListId = sourceListId; }
     public int getDryRun() { return dryRun; }
@@ -0,0 +1,47 @@
+package me.m41k0n.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "http_cache")
+public class HttpCacheEntity {
+
+    @Id
+    @Column(name = "url", nullable = false, updatable = false)
+    private String url;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    @Column(name = "link")
+    private String link; // header Link da resposta original (paginação)
+
+    @Lob
+    @Column(name = "body", nullable = false)
+    private byte[] body;
+
+    @Column(name = "stored_at", nullable = false)
+    private String storedAt; // ISO8601
+
+    @PrePersist
+    @PreUpdate
+    public void onSave() {
+        this.storedAt = Instant.now().toString();
+    }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+    public String getLastModified() { return lastModified; }
+    public void setLastModified(String lastModified) { this.lastModified = lastModified; }
+    public String getLink() { return link; }
+    public void setLink(String link) { this.link = link; }
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+    public String getStoredAt() { return storedAt; }
+}
@@ -4,15 +4,22 @@ import me.m41k0n.entity.HistoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface HistoryRepository extends JpaRepository<HistoryEntity, String> {
+public interface HistoryRepository extends JpaRepository<HistoryEntity, String>, HistoryRepositoryCustom {
 
     boolean existsByUsernameAndActionAndDryRun(String username, String action, int dryRun);
 
-    List<HistoryEntity> findByActionAndDryRunAndTimestampGreaterThanEqual(String action, int dryRun, String timestampIso);
+    @Query("select distinct h.username from HistoryEntity h where h.action = :action and h.dryRun = 0 and h.username in :usernames")
+    List<String> findProcessedUsernames(String action, Collection<String> usernames);
+
+    /**
+     * Usernames da lista que já tiveram a ação efetivamente aplicada (join de history com list_items).
+     */
+    @Query("select distinct h.username from HistoryEntity h, ListItemEntity i " +
+            "where i.listId = :listId and h.username = i.username and h.action = :action and h.dryRun = 0")
+    List<String> findProcessedUsernamesInList(String listId, String action);
 
-    @Query("select h from HistoryEntity h where (:username is null or h.username = :username) and (:action is null or h.action = :action) and (:sinceIso is null or h.timestamp >= :sinceIso) and h.dryRun = 0")
-    List<HistoryEntity> search(String username, String action, String sinceIso);
+    List<HistoryEntity> findByActionAndDryRunAndTimestampGreaterThanEqual(String action, int dryRun, String timestampIso);
 }
@@ -0,0 +1,29 @@
+package me.m41k0n.repository;
+
+import me.m41k0n.entity.HistoryEntity;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface HistoryRepositoryCustom {
+
+    /**
+     * Busca ações reais (dry_run = 0) aplicando somente os filtros informados (não nulos),
+     * para que o SQLite possa usar os índices de history.
+     */
+    List<HistoryEntity> search(String username, String action, String sinceIso);
+
+    /**
+     * Página keyset de {@link #search}, do mais recente para o mais antigo em (timestamp, id).
+     * Com afterTimestamp/afterId informados, retorna só linhas estritamente anteriores a esse par.
+     * O custo não depende de quão fundo o cliente já paginou (não há OFFSET).
+     */
+    List<HistoryEntity> searchPage(String username, String action, String sinceIso,
+                                   String afterTimestamp, String afterId, int limit);
+
+    /**
+     * Mesmos filtros de {@link #search}, mas percorre o resultado com um cursor JDBC forward-only e entrega
+     * cada linha ao consumidor conforme é lida, sem materializar a lista.
+     */
+    void forEach(String username, String action, String sinceIso, Consumer<HistoryEntity> sink);
+}
@@ -0,0 +1,101 @@
+package me.m41k0n.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import me.m41k0n.entity.HistoryEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas dinâmicas de histórico: cada filtro só entra no WHERE quando informado, evitando
+ * predicados {@code (:x is null or h.x = :x)} que impedem o uso de índice.
+ */
+public class HistoryRepositoryImpl implements HistoryRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HistoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<HistoryEntity> search(String username, String action, String sinceIso) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<HistoryEntity> q = cb.createQuery(HistoryEntity.class);
+        Root<HistoryEntity> h = q.from(HistoryEntity.class);
+
+        List<Predicate> where = filters(cb, h, username, action, sinceIso);
+        q.select(h).where(where.toArray(new Predicate[0]));
+        return em.createQuery(q).getResultList();
+    }
+
+    @Override
+    public List<HistoryEntity> searchPage(String username, String action, String sinceIso,
+                                          String afterTimestamp, String afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<HistoryEntity> q = cb.createQuery(HistoryEntity.class);
+        Root<HistoryEntity> h = q.from(HistoryEntity.class);
+
+        List<Predicate> where = filters(cb, h, username, action, sinceIso);
+        if (afterTimestamp != null && afterId != null) {
+            // (timestamp, id) < (:ts, :id), com o termo "timestamp <= :ts" à frente para virar range no índice.
+            where.add(cb.lessThanOrEqualTo(h.get("timestamp"), afterTimestamp));
+            where.add(cb.or(
+                    cb.lessThan(h.get("timestamp"), afterTimestamp),
+                    cb.lessThan(h.get("id"), afterId)));
+        }
+        q.select(h).where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(h.get("timestamp")), cb.desc(h.get("id")));
+        return em.createQuery(q).setMaxResults(limit).getResultList();
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<HistoryEntity> h,
+                                           String username, String action, String sinceIso) {
+        List<Predicate> where = new ArrayList<>();
+        if (username != null) where.add(cb.equal(h.get("username"), username));
+        if (action != null) where.add(cb.equal(h.get("action"), action));
+        where.add(cb.equal(h.get("dryRun"), 0));
+        if (sinceIso != null) where.add(cb.greaterThanOrEqualTo(h.get("timestamp"), sinceIso));
+        return where;
+    }
+
+    @Override
+    public void forEach(String username, String action, String sinceIso, Consumer<HistoryEntity> sink) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, username, action, timestamp, source_list_id, dry_run FROM history WHERE dry_run = 0");
+        List<String> args = new ArrayList<>();
+        if (username != null) { sql.append(" AND username = ?"); args.add(username); }
+        if (action != null) { sql.append(" AND action = ?"); args.add(action); }
+        if (sinceIso != null) { sql.append(" AND timestamp >= ?"); args.add(sinceIso); }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) ps.setString(i + 1, args.get(i));
+            return ps;
+        }, rs -> {
+            HistoryEntity h = new HistoryEntity();
+            h.setId(rs.getString(1));
+            h.setUsername(rs.getString(2));
+            h.setAction(rs.getString(3));
+            h.setTimestamp(rs.getString(4));
+            h.setSourceListId(rs.getString(5));
+            h.setDryRun(rs.getInt(6));
+            sink.accept(h);
+        });
+    }
+}
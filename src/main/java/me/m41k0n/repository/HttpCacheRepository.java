@@ -0,0 +1,7 @@
+package me.m41k0n.repository;
+
+import me.m41k0n.entity.HttpCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface HttpCacheRepository extends JpaRepository<HttpCacheEntity, String> {
+}
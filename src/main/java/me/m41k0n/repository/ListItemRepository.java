@@ -2,13 +2,30 @@ package me.m41k0n.repository;
 
 import me.m41k0n.entity.ListItemEntity;
 import me.m41k0n.entity.ListItemId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
-public interface ListItemRepository extends JpaRepository<ListItemEntity, ListItemId> {
+public interface ListItemRepository extends JpaRepository<ListItemEntity, ListItemId>, ListItemRepositoryCustom {
 
     List<ListItemEntity> findByListId(String listId);
 
+    @Query("select i.username from ListItemEntity i where i.listId = :listId")
+    List<String> findUsernamesByListId(String listId);
+
+    /**
+     * Usernames da lista em ordem alfabética a partir de after (exclusivo), usando a chave primária
+     * (list_id, username). Use after = "" para a primeira página e o Pageable só para o limite.
+     */
+    @Query("select i.username from ListItemEntity i where i.listId = :listId and i.username > :after order by i.username")
+    List<String> findUsernamesAfter(String listId, String after, Pageable pageable);
+
+    long countByListId(String listId);
+
+    @Modifying
+    @Query("delete from ListItemEntity i where i.listId = :listId")
     void deleteByListId(String listId);
 }
@@ -0,0 +1,17 @@
+package me.m41k0n.repository;
+
+import java.util.Collection;
+
+public interface ListItemRepositoryCustom {
+
+    /**
+     * Insere os usernames na lista em lote (JDBC batch com INSERT OR IGNORE); duplicados são ignorados.
+     * Retorna quantas linhas foram de fato inseridas.
+     */
+    int insertIgnoringDuplicates(String listId, Collection<String> usernames);
+
+    /**
+     * Remove os usernames da lista em lote. Retorna quantas linhas foram removidas.
+     */
+    int deleteUsernames(String listId, Collection<String> usernames);
+}
@@ -0,0 +1,48 @@
+package me.m41k0n.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escritas em massa de list_items via JDBC batch, participando da transação JPA corrente.
+ * Evita um persist/remove (e um SELECT prévio) por item em listas grandes.
+ */
+public class ListItemRepositoryImpl implements ListItemRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT OR IGNORE INTO list_items (list_id, username) VALUES (?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM list_items WHERE list_id = ? AND username = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ListItemRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIgnoringDuplicates(String listId, Collection<String> usernames) {
+        return batch(INSERT_SQL, listId, usernames);
+    }
+
+    @Override
+    public int deleteUsernames(String listId, Collection<String> usernames) {
+        return batch(DELETE_SQL, listId, usernames);
+    }
+
+    private int batch(String sql, String listId, Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) return 0;
+        List<String> rows = new ArrayList<>(usernames);
+        int[][] counts = jdbcTemplate.batchUpdate(sql, rows, BATCH_SIZE, (ps, username) -> {
+            ps.setString(1, listId);
+            ps.setString(2, username);
+        });
+        int total = 0;
+        for (int[] chunk : counts) {
+            for (int c : chunk) total += Math.max(0, c);
+        }
+        return total;
+    }
+}
@@ -1,10 +1,31 @@
 package me.m41k0n.repository;
 
 import me.m41k0n.entity.ListEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.Optional;
 
 public interface ListRepository extends JpaRepository<ListEntity, String> {
 
     Optional<ListEntity> findByName(String name);
+
+    /**
+     * Metadados das listas com a contagem de itens (GROUP BY), sem carregar list_items.
+     */
+    interface ListSummary {
+        String getId();
+        String getName();
+        String getCreatedAt();
+        String getUpdatedAt();
+        long getItemCount();
+    }
+
+    @Query(value = "select l.id as id, l.name as name, l.createdAt as createdAt, l.updatedAt as updatedAt, "
+            + "count(i.username) as itemCount from ListEntity l left join l.items i "
+            + "group by l.id, l.name, l.createdAt, l.updatedAt",
+            countQuery = "select count(l) from ListEntity l")
+    Page<ListSummary> findSummaries(Pageable pageable);
 }
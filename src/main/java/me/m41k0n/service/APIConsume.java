@@ -1,21 +1,38 @@
 package me.m41k0n.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class APIConsume {
 
     private final HttpClient client;
+    private final HttpResponseCache cache;
+    private final GitHubRateLimiter rateLimiter;
     private static final String TOKEN = System.getenv("GITHUB_TOKEN");
 
+    /**
+     * Uso fora do contexto Spring (ex.: boas-vindas do modo menu), sem cache condicional nem rate limiter.
+     */
     public APIConsume(HttpClient client) {
+        this(client, null, null);
+    }
+
+    @Autowired
+    public APIConsume(HttpClient client, HttpResponseCache cache, GitHubRateLimiter rateLimiter) {
         this.client = client;
+        this.cache = cache;
+        this.rateLimiter = rateLimiter;
     }
 
     private HttpRequest.Builder createRequestBuilder(String url) {
@@ -27,39 +44,65 @@ public class APIConsume {
     }
 
     public String getData(String url) {
-        HttpRequest request = createRequestBuilder(url).build();
-        HttpResponse<String> response;
+        return getResponse(url).bodyAsString();
+    }
 
-        try {
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            throw new RuntimeException("A requisição HTTP falhou", e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("A thread foi interrompida durante a request HTTP", e);
+    /**
+     * GET completo, preservando status e headers (ex.: Link para paginação).
+     *
+     * Quando há uma versão em cache da URL, envia If-None-Match/If-Modified-Since; se o GitHub
+     * responder 304, devolve o corpo em cache (sem consumir rate limit).
+     */
+    public ApiResponse getResponse(String url) {
+        HttpResponseCache.Entry cached = cache != null ? cache.lookup(url) : null;
+        HttpRequest.Builder builder = createRequestBuilder(url);
+        if (cached != null) {
+            if (cached.etag() != null) builder.header("If-None-Match", cached.etag());
+            else builder.header("If-Modified-Since", cached.lastModified());
+        }
+        HttpResponse<byte[]> response = send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 304 && cached != null) {
+            return new ApiResponse(200, cached.body(), withLink(response.headers(), cached.link()), true);
+        }
+        if (cache != null && response.statusCode() == 200) {
+            HttpHeaders h = response.headers();
+            cache.store(url, h.firstValue("ETag").orElse(null), h.firstValue("Last-Modified").orElse(null),
+                    h.firstValue("Link").orElse(null), response.body());
         }
+        return new ApiResponse(response.statusCode(), response.body(), response.headers(), false);
+    }
 
-        return response.body();
+    /**
+     * PUT/DELETE sem corpo enviado uma única vez: respostas barradas por rate limit voltam para o chamador
+     * (com headers e corpo) em vez de serem reenviadas aqui. Usado pela {@link MutationQueue}, que controla
+     * o próprio ritmo e as novas tentativas.
+     */
+    public ApiResponse mutate(String method, String url) {
+        HttpRequest request = createRequestBuilder(url).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray(), 0);
+        return new ApiResponse(response.statusCode(), response.body(), response.headers(), false);
     }
 
-    public int deleteStatus(String url) {
-        HttpRequest request = createRequestBuilder(url).DELETE().build();
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode();
-        } catch (IOException e) {
-            throw new RuntimeException("A requisição HTTP falhou", e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("A thread foi interrompida durante a request HTTP", e);
-        }
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return send(request, handler, rateLimiter != null ? rateLimiter.maxRetries() : 0);
     }
 
-    public int putEmpty(String url) {
-        HttpRequest request = createRequestBuilder(url).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    /**
+     * Envia a requisição passando pelo rate limiter compartilhado. Respostas barradas por rate limit
+     * (403/429) aguardam o reset/Retry-After e são reenviadas até maxRetries vezes.
+     */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, int maxRetries) {
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode();
+            int attempt = 0;
+            while (true) {
+                if (rateLimiter != null) rateLimiter.acquire(GitHubRateLimiter.Resource.REST, 1);
+                HttpResponse<T> response = client.send(request, handler);
+                if (rateLimiter == null
+                        || !rateLimiter.onResponse(GitHubRateLimiter.Resource.REST, response.statusCode(), response.headers())
+                        || attempt++ >= maxRetries) {
+                    return response;
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException("A requisição HTTP falhou", e);
         } catch (InterruptedException e) {
@@ -67,4 +110,12 @@ public class APIConsume {
             throw new RuntimeException("A thread foi interrompida durante a request HTTP", e);
         }
     }
-}
\ No newline at end of file
+
+    // 304 nem sempre repete o header Link; recompõe a partir do cache para a paginação continuar funcionando
+    private HttpHeaders withLink(HttpHeaders headers, String link) {
+        if (link == null || headers.firstValue("Link").isPresent()) return headers;
+        Map<String, List<String>> map = new HashMap<>(headers.map());
+        map.put("Link", List.of(link));
+        return HttpHeaders.of(map, (k, v) -> true);
+    }
+}
@@ -0,0 +1,19 @@
+package me.m41k0n.service;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resposta de um GET na API do GitHub. Quando {@code fromCache} é true, o corpo veio do cache
+ * condicional (GitHub respondeu 304 Not Modified) e {@code statusCode} é o status original (200).
+ */
+public record ApiResponse(int statusCode, byte[] body, HttpHeaders headers, boolean fromCache) {
+
+    public String bodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
@@ -0,0 +1,282 @@
+package me.m41k0n.service;
+
+import me.m41k0n.entity.EnrichmentCacheEntity;
+import me.m41k0n.repository.EnrichmentCacheRepository;
+import me.m41k0n.service.UserGraphBatchLoader.Field;
+import me.m41k0n.service.UserGraphBatchLoader.GraphInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache read-through das métricas de enriquecimento usadas em /api/filter.
+ *
+ * Dois níveis: memória (LRU limitado por app.enrichment-cache.memory-entries) e SQLite (tabela
+ * enrichment_cache). Cada grupo de campos tem seu próprio TTL (app.enrichment-cache.ttl-seconds.*):
+ * ao expirar, só os grupos vencidos são buscados de novo, agrupando os usuários pelo mesmo conjunto de campos.
+ * Se a busca falhar e houver um valor anterior completo, ele é servido mesmo vencido.
+ */
+@Component
+public class EnrichmentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrichmentCache.class);
+
+    /**
+     * Valores conhecidos de um usuário e quando cada grupo de campos foi buscado.
+     */
+    public record Entry(Integer followersCount, Integer reposCount, Instant lastPushAt, Set<String> languages,
+                        Boolean isFollowingViewer, Boolean viewerIsFollowing, Instant lastActivity,
+                        Integer contributions, Map<Field, Instant> fetchedAt) {
+
+        static Entry empty() {
+            return new Entry(null, null, null, null, null, null, null, null, Map.of());
+        }
+
+        Set<Field> stale(Map<Field, Duration> ttl, Instant now) {
+            Set<Field> stale = EnumSet.noneOf(Field.class);
+            for (Field f : Field.values()) {
+                Instant at = fetchedAt.get(f);
+                if (at == null || at.plus(ttl.get(f)).isBefore(now)) stale.add(f);
+            }
+            return stale;
+        }
+
+        boolean isComplete() {
+            return fetchedAt.size() == Field.values().length;
+        }
+
+        Entry merge(GraphInfo g, Set<Field> fields, Instant now) {
+            Map<Field, Instant> at = new EnumMap<>(Field.class);
+            at.putAll(fetchedAt);
+            for (Field f : fields) at.put(f, now);
+            return new Entry(
+                    fields.contains(Field.FOLLOWERS) ? Integer.valueOf(g.followersCount()) : followersCount,
+                    fields.contains(Field.REPOSITORIES) ? Integer.valueOf(g.reposCount()) : reposCount,
+                    fields.contains(Field.REPOSITORIES) ? g.lastPushAt() : lastPushAt,
+                    fields.contains(Field.LANGUAGES) ? g.languages() : languages,
+                    fields.contains(Field.RELATIONSHIP) ? Boolean.valueOf(g.isFollowingViewer()) : isFollowingViewer,
+                    fields.contains(Field.RELATIONSHIP) ? Boolean.valueOf(g.viewerIsFollowing()) : viewerIsFollowing,
+                    fields.contains(Field.ACTIVITY) ? g.lastActivity() : lastActivity,
+                    fields.contains(Field.ACTIVITY) ? Integer.valueOf(g.contributions()) : contributions,
+                    Collections.unmodifiableMap(at));
+        }
+
+        GraphInfo toGraphInfo() {
+            return new GraphInfo(lastPushAt, followersCount, reposCount, languages,
+                    isFollowingViewer, viewerIsFollowing, lastActivity, contributions);
+        }
+    }
+
+    private final UserGraphBatchLoader loader;
+    private final EnrichmentCacheRepository repository;
+    private final boolean enabled;
+    private final Map<Field, Duration> ttl = new EnumMap<>(Field.class);
+    private final Map<String, Entry> memory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EnrichmentCache(UserGraphBatchLoader loader,
+                           EnrichmentCacheRepository repository,
+                           @Value("${app.enrichment-cache.enabled:true}") boolean enabled,
+                           @Value("${app.enrichment-cache.memory-entries:2000}") int memoryEntries,
+                           @Value("${app.enrichment-cache.ttl-seconds.followers:86400}") long followersTtl,
+                           @Value("${app.enrichment-cache.ttl-seconds.repositories:21600}") long repositoriesTtl,
+                           @Value("${app.enrichment-cache.ttl-seconds.languages:604800}") long languagesTtl,
+                           @Value("${app.enrichment-cache.ttl-seconds.relationship:3600}") long relationshipTtl,
+                           @Value("${app.enrichment-cache.ttl-seconds.activity:3600}") long activityTtl) {
+        this.loader = loader;
+        this.repository = repository;
+        this.enabled = enabled;
+        ttl.put(Field.FOLLOWERS, Duration.ofSeconds(followersTtl));
+        ttl.put(Field.REPOSITORIES, Duration.ofSeconds(repositoriesTtl));
+        ttl.put(Field.LANGUAGES, Duration.ofSeconds(languagesTtl));
+        ttl.put(Field.RELATIONSHIP, Duration.ofSeconds(relationshipTtl));
+        ttl.put(Field.ACTIVITY, Duration.ofSeconds(activityTtl));
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Devolve as métricas dos logins, buscando no GitHub apenas os grupos de campos vencidos.
+     */
+    public UserGraphBatchLoader.Batch load(List<String> logins) {
+        if (!enabled) return loader.load(logins);
+        Instant now = Instant.now();
+        Map<String, Entry> entries = lookupAll(logins);
+
+        Map<Set<Field>, List<String>> byStaleFields = new LinkedHashMap<>();
+        for (String login : logins) {
+            Set<Field> stale = entries.getOrDefault(login, Entry.empty()).stale(ttl, now);
+            // repositórios e linguagens vêm da mesma conexão: se uma for buscada, atualiza as duas
+            if (stale.contains(Field.REPOSITORIES) || stale.contains(Field.LANGUAGES)) {
+                stale.add(Field.REPOSITORIES);
+                stale.add(Field.LANGUAGES);
+            }
+            if (stale.isEmpty()) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                byStaleFields.computeIfAbsent(stale, k -> new ArrayList<>()).add(login);
+            }
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        Map<String, Entry> updated = new LinkedHashMap<>();
+        for (var group : byStaleFields.entrySet()) {
+            UserGraphBatchLoader.Batch fetched = loader.load(group.getValue(), group.getKey());
+            for (var e : fetched.infos().entrySet()) {
+                Entry merged = entries.getOrDefault(e.getKey(), Entry.empty()).merge(e.getValue(), group.getKey(), now);
+                entries.put(e.getKey(), merged);
+                updated.put(e.getKey(), merged);
+            }
+            for (var e : fetched.errors().entrySet()) {
+                Entry previous = entries.get(e.getKey());
+                if (previous != null && previous.isComplete()) {
+                    log.debug("[ENRICH-CACHE] Servindo valor vencido de {} após falha: {}", e.getKey(), e.getValue());
+                } else {
+                    errors.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+        if (!updated.isEmpty()) {
+            synchronized (memory) {
+                memory.putAll(updated);
+            }
+            persist(updated);
+        }
+
+        Map<String, GraphInfo> infos = new HashMap<>();
+        for (String login : logins) {
+            Entry e = entries.get(login);
+            if (e != null && e.isComplete()) infos.put(login, e.toGraphInfo());
+        }
+        return new UserGraphBatchLoader.Batch(infos, errors);
+    }
+
+    public void invalidate(String login) {
+        synchronized (memory) {
+            memory.remove(login);
+        }
+        try {
+            repository.deleteById(login);
+        } catch (RuntimeException ex) {
+            log.debug("[ENRICH-CACHE] Falha ao remover {} do cache persistido: {}", login, ex.getMessage());
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        repository.deleteAllInBatch();
+        log.info("[ENRICH-CACHE] Cache de enriquecimento limpo");
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        synchronized (memory) {
+            m.put("memoryEntries", memory.size());
+        }
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        Map<String, Object> ttls = new LinkedHashMap<>();
+        ttl.forEach((f, d) -> ttls.put(f.name().toLowerCase(), d.toSeconds()));
+        m.put("ttlSeconds", ttls);
+        return m;
+    }
+
+    private Map<String, Entry> lookupAll(List<String> logins) {
+        Map<String, Entry> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (memory) {
+            for (String login : logins) {
+                Entry e = memory.get(login);
+                if (e != null) found.put(login, e); else missing.add(login);
+            }
+        }
+        if (missing.isEmpty()) return found;
+        try {
+            Map<String, Entry> loaded = new HashMap<>();
+            for (EnrichmentCacheEntity c : repository.findAllById(missing)) {
+                loaded.put(c.getLogin(), fromEntity(c));
+            }
+            synchronized (memory) {
+                memory.putAll(loaded);
+            }
+            found.putAll(loaded);
+        } catch (RuntimeException ex) {
+            log.debug("[ENRICH-CACHE] Falha ao ler cache persistido: {}", ex.getMessage());
+        }
+        return found;
+    }
+
+    // SQLite tem um único writer: serializa as gravações de execuções concorrentes
+    private synchronized void persist(Map<String, Entry> entries) {
+        try {
+            List<EnrichmentCacheEntity> rows = new ArrayList<>(entries.size());
+            entries.forEach((login, e) -> rows.add(toEntity(login, e)));
+            repository.saveAll(rows);
+        } catch (RuntimeException ex) {
+            log.debug("[ENRICH-CACHE] Falha ao persistir {} entradas: {}", entries.size(), ex.getMessage());
+        }
+    }
+
+    private static EnrichmentCacheEntity toEntity(String login, Entry e) {
+        EnrichmentCacheEntity c = new EnrichmentCacheEntity();
+        c.setLogin(login);
+        c.setFollowersCount(e.followersCount());
+        c.setFollowersAt(iso(e.fetchedAt().get(Field.FOLLOWERS)));
+        c.setReposCount(e.reposCount());
+        c.setLastPushAt(iso(e.lastPushAt()));
+        c.setReposAt(iso(e.fetchedAt().get(Field.REPOSITORIES)));
+        c.setLanguages(e.languages() != null ? String.join(",", e.languages()) : null);
+        c.setLanguagesAt(iso(e.fetchedAt().get(Field.LANGUAGES)));
+        c.setIsFollowingViewer(e.isFollowingViewer() == null ? null : e.isFollowingViewer() ? 1 : 0);
+        c.setViewerIsFollowing(e.viewerIsFollowing() == null ? null : e.viewerIsFollowing() ? 1 : 0);
+        c.setRelationshipAt(iso(e.fetchedAt().get(Field.RELATIONSHIP)));
+        c.setLastActivity(iso(e.lastActivity()));
+        c.setContributions(e.contributions());
+        c.setActivityAt(iso(e.fetchedAt().get(Field.ACTIVITY)));
+        return c;
+    }
+
+    private static Entry fromEntity(EnrichmentCacheEntity c) {
+        Map<Field, Instant> at = new EnumMap<>(Field.class);
+        putIfPresent(at, Field.FOLLOWERS, c.getFollowersAt());
+        putIfPresent(at, Field.REPOSITORIES, c.getReposAt());
+        putIfPresent(at, Field.LANGUAGES, c.getLanguagesAt());
+        putIfPresent(at, Field.RELATIONSHIP, c.getRelationshipAt());
+        putIfPresent(at, Field.ACTIVITY, c.getActivityAt());
+        Set<String> languages = null;
+        if (c.getLanguages() != null) {
+            languages = new LinkedHashSet<>();
+            for (String l : c.getLanguages().split(",")) if (!l.isBlank()) languages.add(l);
+        }
+        return new Entry(c.getFollowersCount(), c.getReposCount(), instant(c.getLastPushAt()), languages,
+                c.getIsFollowingViewer() == null ? null : c.getIsFollowingViewer() == 1,
+                c.getViewerIsFollowing() == null ? null : c.getViewerIsFollowing() == 1,
+                instant(c.getLastActivity()), c.getContributions(), Collections.unmodifiableMap(at));
+    }
+
+    private static void putIfPresent(Map<Field, Instant> at, Field f, String iso) {
+        if (iso != null) at.put(f, Instant.parse(iso));
+    }
+
+    private static String iso(Instant i) {
+        return i != null ? i.toString() : null;
+    }
+
+    private static Instant instant(String iso) {
+        return iso != null ? Instant.parse(iso) : null;
+    }
+}
@@ -1,27 +1,40 @@
 package me.m41k0n.service;
 
 import me.m41k0n.entity.ListEntity;
-import me.m41k0n.entity.ListItemEntity;
 import me.m41k0n.repository.ListItemRepository;
 import me.m41k0n.repository.ListRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Lista especial de exclusão (EXCLUDE_NEXT_RUN).
+ *
+ * O conjunto de usernames fica em memória como um {@link Snapshot} imutável com versão; leituras não vão ao
+ * banco enquanto nenhuma escrita o invalidar. Escritas (addAll e alterações de listas via {@link ListService})
+ * chamam {@link #invalidate()}, que descarta o snapshot na hora e de novo após o commit, para que uma
+ * recarga feita no meio da transação não fique em cache com dados antigos.
+ */
 @Service
 public class ExclusionService {
 
     private static final Logger log = LoggerFactory.getLogger(ExclusionService.class);
     private static final String LIST_NAME = "EXCLUDE_NEXT_RUN";
 
+    public record Snapshot(long version, Set<String> usernames) {}
+
     private final ListRepository listRepository;
     private final ListItemRepository listItemRepository;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
 
     public ExclusionService(ListRepository listRepository, ListItemRepository listItemRepository) {
         this.listRepository = listRepository;
@@ -32,38 +45,70 @@ public class ExclusionService {
         return listRepository.findByName(LIST_NAME).orElseGet(() -> {
             ListEntity le = new ListEntity();
             le.setName(LIST_NAME);
-            le = listRepository.save(le);
+            le = listRepository.saveAndFlush(le);
             log.info("[EXCLUDE] Lista de exclusões criada: {}", le.getId());
             return le;
         });
     }
 
+    /**
+     * Adiciona os usernames à lista de exclusão com um único INSERT OR IGNORE em lote.
+     * Retorna quantos eram novos.
+     */
     @Transactional
     public int addAll(List<String> usernames) {
         if (usernames == null || usernames.isEmpty()) return 0;
-        ListEntity list = getOrCreateList();
-        Set<String> existing = listItemRepository.findByListId(list.getId()).stream()
-                .map(ListItemEntity::getUsername)
-                .collect(Collectors.toSet());
-        int added = 0;
+        Set<String> distinct = new LinkedHashSet<>();
         for (String u : usernames) {
-            if (u == null || u.isBlank() || existing.contains(u)) continue;
-            ListItemEntity item = new ListItemEntity();
-            item.setListId(list.getId());
-            item.setUsername(u);
-            item.setList(list);
-            listItemRepository.save(item);
-            added++;
+            if (u != null && !u.isBlank()) distinct.add(u);
+        }
+        if (distinct.isEmpty()) return 0;
+        ListEntity list = getOrCreateList();
+        int added = listItemRepository.insertIgnoringDuplicates(list.getId(), distinct);
+        if (added > 0) {
+            invalidate();
+            log.info("[EXCLUDE] {} usuários adicionados à lista de exclusões", added);
         }
-        if (added > 0) log.info("[EXCLUDE] {} usuários adicionados à lista de exclusões", added);
         return added;
     }
 
+    /**
+     * Usernames excluídos (conjunto imutável, servido da memória).
+     */
     public Set<String> allUsernames() {
-        return listRepository.findByName(LIST_NAME)
-                .map(le -> new HashSet<>(listItemRepository.findByListId(le.getId()).stream()
-                        .map(ListItemEntity::getUsername)
-                        .collect(Collectors.toSet())))
-                .orElseGet(HashSet::new);
+        return snapshot().usernames();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null) return s;
+        long v = version.get();
+        Set<String> usernames = listRepository.findByName(LIST_NAME)
+                .map(le -> Set.copyOf(listItemRepository.findUsernamesByListId(le.getId())))
+                .orElseGet(Set::of);
+        s = new Snapshot(v, usernames);
+        synchronized (this) {
+            // Só publica se nenhuma escrita invalidou durante a carga.
+            if (version.get() == v) snapshot = s;
+        }
+        log.debug("[EXCLUDE] Snapshot v{} carregado com {} usuários", v, usernames.size());
+        return s;
+    }
+
+    public void invalidate() {
+        bump();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump();
+                }
+            });
+        }
+    }
+
+    private synchronized void bump() {
+        version.incrementAndGet();
+        snapshot = null;
     }
 }
@@ -4,8 +4,17 @@ import me.m41k0n.entity.HistoryEntity;
 import me.m41k0n.model.User;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 /**
  * Service for exporting user data to different formats.
@@ -40,18 +49,59 @@ public class ExportService {
         };
     }
 
-    public String exportHistoryToJson(List<HistoryEntity> items) throws Exception {
-        return ExportUtils.historyToJson(items);
+    /**
+     * Escritor incremental de histórico: cada linha é gravada no stream assim que chega, então a memória
+     * não cresce com o tamanho do export. close() finaliza o documento sem fechar o stream de saída.
+     */
+    public interface HistoryWriter extends Closeable {
+        void write(HistoryEntity h);
     }
 
-    public String exportHistoryToCsv(List<HistoryEntity> items) {
-        return ExportUtils.historyToCsv(items);
+    public HistoryWriter historyWriter(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> csvHistoryWriter(out);
+            case JSON -> jsonHistoryWriter(out);
+        };
     }
 
-    public String exportHistoryToFormat(List<HistoryEntity> items, ExportFormat format) throws Exception {
-        return switch (format) {
-            case CSV -> exportHistoryToCsv(items);
-            case JSON -> exportHistoryToJson(items);
+    private HistoryWriter csvHistoryWriter(OutputStream out) throws IOException {
+        BufferedWriter w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(ExportUtils.HISTORY_CSV_HEADER);
+        return new HistoryWriter() {
+            @Override
+            public void write(HistoryEntity h) {
+                try {
+                    w.write(ExportUtils.historyCsvLine(h));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                w.flush();
+            }
+        };
+    }
+
+    private HistoryWriter jsonHistoryWriter(OutputStream out) throws IOException {
+        SequenceWriter seq = M.writerWithDefaultPrettyPrinter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValuesAsArray(out);
+        return new HistoryWriter() {
+            @Override
+            public void write(HistoryEntity h) {
+                try {
+                    seq.write(h);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                seq.close();
+            }
         };
     }
 
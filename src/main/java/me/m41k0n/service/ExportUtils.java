@@ -24,22 +24,14 @@ public class ExportUtils {
         return sw.toString();
     }
 
-    public static String historyToJson(List<HistoryEntity> items) throws Exception {
-        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(items);
-    }
-
-    public static String historyToCsv(List<HistoryEntity> items) {
-        StringWriter sw = new StringWriter();
-        sw.append("username,action,timestamp,source_list_id,dry_run\n");
-        for (HistoryEntity h : items) {
-            sw.append(escape(h.getUsername())).append(",")
-              .append(escape(h.getAction())).append(",")
-              .append(escape(h.getTimestamp())).append(",")
-              .append(escape(h.getSourceListId())).append(",")
-              .append(String.valueOf(h.getDryRun()))
-              .append("\n");
-        }
-        return sw.toString();
+    static final String HISTORY_CSV_HEADER = "username,action,timestamp,source_list_id,dry_run\n";
+
+    static String historyCsvLine(HistoryEntity h) {
+        return escape(h.getUsername()) + "," +
+                escape(h.getAction()) + "," +
+                escape(h.getTimestamp()) + "," +
+                escape(h.getSourceListId()) + "," +
+                h.getDryRun() + "\n";
     }
 
     private static String escape(String s) {
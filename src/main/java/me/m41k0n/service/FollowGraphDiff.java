@@ -0,0 +1,57 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Diferença de conjuntos entre followers e following, indexada por login.
+ *
+ * Substitui {@code new ArrayList<>(following).removeAll(followers)} (O(n·m) com User.equals) por
+ * hashing: O(n + m). Mantém a ordem de cada lista de origem e devolve, na mesma chamada,
+ * não-seguidores, mútuos e seguidores que você não segue de volta.
+ */
+public final class FollowGraphDiff {
+
+    private FollowGraphDiff() {}
+
+    /**
+     * @param nonFollowers você segue, mas não te seguem (ordem de following)
+     * @param mutuals      seguem-se mutuamente (ordem de following)
+     * @param notFollowedBack te seguem, mas você não segue (ordem de followers)
+     */
+    public record Result(List<User> nonFollowers, List<User> mutuals, List<User> notFollowedBack) {
+
+        public Result {
+            nonFollowers = List.copyOf(nonFollowers);
+            mutuals = List.copyOf(mutuals);
+            notFollowedBack = List.copyOf(notFollowedBack);
+        }
+    }
+
+    public static Result compute(List<User> followers, List<User> following) {
+        Set<String> followerLogins = loginSet(followers);
+        Set<String> followingLogins = loginSet(following);
+
+        List<User> nonFollowers = new ArrayList<>();
+        List<User> mutuals = new ArrayList<>();
+        for (User u : following) {
+            if (followerLogins.contains(u.login())) mutuals.add(u); else nonFollowers.add(u);
+        }
+
+        List<User> notFollowedBack = new ArrayList<>();
+        for (User u : followers) {
+            if (!followingLogins.contains(u.login())) notFollowedBack.add(u);
+        }
+        return new Result(nonFollowers, mutuals, notFollowedBack);
+    }
+
+    private static Set<String> loginSet(List<User> users) {
+        Set<String> set = new HashSet<>(Math.max(16, (int) (users.size() / 0.75f) + 1));
+        for (User u : users) set.add(u.login());
+        return set;
+    }
+}
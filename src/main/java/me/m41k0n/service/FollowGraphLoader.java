@@ -0,0 +1,120 @@
+package me.m41k0n.service;
+
+import me.m41k0n.GitHubURL;
+import me.m41k0n.model.User;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Carrega as listas completas de followers e following em paralelo.
+ *
+ * As duas varreduras rodam ao mesmo tempo no executor limitado "graphScanExecutor"; se uma delas falhar,
+ * a outra é cancelada (interrompida) e a falha é propagada ao chamador.
+ */
+@Component
+public class FollowGraphLoader {
+
+    private static final int PER_PAGE = 100;
+
+    private final GitHubPaginator paginator;
+    private final UserPageParser parser;
+    private final ExecutorService scanExecutor;
+
+    public FollowGraphLoader(GitHubPaginator paginator, UserPageParser parser,
+                             @Qualifier("graphScanExecutor") ExecutorService scanExecutor) {
+        this.paginator = paginator;
+        this.parser = parser;
+        this.scanExecutor = scanExecutor;
+    }
+
+    public record FollowGraph(List<User> followers, List<User> following,
+                              long followersFetchMs, long followingFetchMs, long totalMs) {}
+
+    private record Scan(boolean followers, List<User> users, long elapsedMs) {}
+
+    public FollowGraph load() {
+        long start = System.nanoTime();
+        CompletionService<Scan> completion = new ExecutorCompletionService<>(scanExecutor);
+        Future<Scan> followersScan = completion.submit(() -> scan(GitHubURL.FOLLOWERS, "followers", true));
+        Future<Scan> followingScan = completion.submit(() -> scan(GitHubURL.FOLLOWING, "following", false));
+
+        Scan followers = null;
+        Scan following = null;
+        try {
+            for (int i = 0; i < 2; i++) {
+                Scan done = completion.take().get();
+                if (done.followers()) followers = done; else following = done;
+            }
+        } catch (InterruptedException e) {
+            cancelAll(followersScan, followingScan);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida durante a leitura do grafo de follows", e);
+        } catch (ExecutionException e) {
+            cancelAll(followersScan, followingScan);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Falha ao ler o grafo de follows", cause);
+        }
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new FollowGraph(followers.users(), following.users(), followers.elapsedMs(), following.elapsedMs(), totalMs);
+    }
+
+    /**
+     * Relê só followers, reaproveitando following de uma leitura anterior (refresh parcial).
+     */
+    public FollowGraph reloadFollowers(List<User> following) {
+        Scan followers = scan(GitHubURL.FOLLOWERS, "followers", true);
+        return new FollowGraph(followers.users(), following, followers.elapsedMs(), 0, followers.elapsedMs());
+    }
+
+    /**
+     * Relê só following, reaproveitando followers de uma leitura anterior (refresh parcial).
+     */
+    public FollowGraph reloadFollowing(List<User> followers) {
+        Scan following = scan(GitHubURL.FOLLOWING, "following", false);
+        return new FollowGraph(followers, following.users(), 0, following.elapsedMs(), following.elapsedMs());
+    }
+
+    /**
+     * Carrega followers por completo e então percorre following entregando, a cada página que chega, os
+     * não-seguidores dela. O primeiro resultado sai após a varredura de followers e uma página de following,
+     * não após as duas varreduras completas. Devolve o grafo completo (following na ordem original).
+     */
+    public FollowGraph streamNonFollowers(Consumer<List<User>> onNonFollowers) {
+        long start = System.nanoTime();
+        Scan followers = scan(GitHubURL.FOLLOWERS, "followers", true);
+        Set<String> followerLogins = new HashSet<>();
+        for (User u : followers.users()) followerLogins.add(u.login());
+
+        long followingStart = System.nanoTime();
+        SortedMap<Integer, List<User>> pages = new TreeMap<>();
+        paginator.forEachPage(GitHubURL.FOLLOWING.getUrl(), PER_PAGE, "following", parser::parse, page -> {
+            pages.put(page.number(), page.items());
+            List<User> nonFollowers = new ArrayList<>();
+            for (User u : page.items()) {
+                if (!followerLogins.contains(u.login())) nonFollowers.add(u);
+            }
+            if (!nonFollowers.isEmpty()) onNonFollowers.accept(nonFollowers);
+        });
+        List<User> following = new ArrayList<>();
+        pages.values().forEach(following::addAll);
+
+        long end = System.nanoTime();
+        return new FollowGraph(followers.users(), following, followers.elapsedMs(),
+                TimeUnit.NANOSECONDS.toMillis(end - followingStart), TimeUnit.NANOSECONDS.toMillis(end - start));
+    }
+
+    private Scan scan(GitHubURL url, String label, boolean isFollowers) {
+        long start = System.nanoTime();
+        List<User> users = paginator.fetchAll(url.getUrl(), PER_PAGE, label, parser::parse);
+        return new Scan(isFollowers, users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void cancelAll(Future<?>... futures) {
+        for (Future<?> f : futures) f.cancel(true);
+    }
+}
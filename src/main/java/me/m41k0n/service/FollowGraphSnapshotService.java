@@ -0,0 +1,246 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Mantém em memória o último {@link GraphSnapshot} e só o revalida quando ele passa do TTL
+ * (app.graph.snapshot-ttl-seconds) ou é invalidado por uma escrita; um refresh manual sempre refaz a
+ * varredura completa. Preview paginado, export, listagem e unfollow em massa leem todos do mesmo snapshot.
+ *
+ * Com app.graph.change-detection.enabled, a revalidação pergunta antes ao {@link GraphChangeDetector}
+ * (GET /user e primeiras páginas, normalmente 304): sem mudança o snapshot é renovado sem varredura (mesmo
+ * id); se só um lado mudou, só ele é relido; senão, varredura completa.
+ */
+@Service
+public class FollowGraphSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowGraphSnapshotService.class);
+
+    private final FollowGraphLoader loader;
+    private final GraphChangeDetector detector;
+    private final boolean changeDetection;
+    private final Duration ttl;
+    private final AtomicLong versions = new AtomicLong();
+    private final Object refreshLock = new Object();
+    private volatile GraphSnapshot current;
+    private volatile Set<String> followingLogins = Set.of();
+    // follow/unfollow feitos por nós desde o snapshot atual: login -> (segue?, quando)
+    private final Map<String, OwnWrite> ownWrites = new ConcurrentHashMap<>();
+    private volatile boolean stale;
+    private Instant lastWriteAt = Instant.EPOCH; // guardado por staleLock, junto com as mudanças em stale
+    private final Object staleLock = new Object();
+    private volatile GraphChangeDetector.Check lastCheck;
+
+    public FollowGraphSnapshotService(FollowGraphLoader loader, GraphChangeDetector detector,
+                                      @Value("${app.graph.change-detection.enabled:true}") boolean changeDetection,
+                                      @Value("${app.graph.snapshot-ttl-seconds:300}") long ttlSeconds) {
+        this.loader = loader;
+        this.detector = detector;
+        this.changeDetection = changeDetection;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Snapshot vigente, revalidando se não existir, estiver expirado ou invalidado. Requisições concorrentes
+     * durante a recarga aguardam a mesma varredura.
+     */
+    public GraphSnapshot current() {
+        GraphSnapshot s = current;
+        if (isFresh(s)) return s;
+        synchronized (refreshLock) {
+            s = current;
+            if (isFresh(s)) return s;
+            return s != null && changeDetection ? revalidate(s) : load();
+        }
+    }
+
+    /**
+     * Força uma nova varredura completa.
+     */
+    public GraphSnapshot refresh() {
+        synchronized (refreshLock) {
+            return load();
+        }
+    }
+
+    /**
+     * Entrega os não-seguidores em blocos conforme ficam disponíveis. Com snapshot válido, vem tudo dele num
+     * bloco só; senão faz a varredura em streaming ({@link FollowGraphLoader#streamNonFollowers}) e, ao final,
+     * publica o grafo lido como novo snapshot. Não segura o lock de recarga enquanto o cliente consome.
+     *
+     * A publicação só acontece se, durante a varredura, nenhum snapshot mais novo foi publicado e nenhuma
+     * escrita foi registrada; senão o grafo lido é devolvido sem substituir o atual (que segue invalidado).
+     */
+    public GraphSnapshot streamNonFollowers(Consumer<List<User>> onNonFollowers) {
+        GraphSnapshot s = current;
+        if (isFresh(s)) {
+            onNonFollowers.accept(s.diff().nonFollowers());
+            return s;
+        }
+        Instant start = Instant.now();
+        FollowGraphLoader.FollowGraph graph = loader.streamNonFollowers(onNonFollowers);
+        synchronized (refreshLock) {
+            GraphSnapshot latest = current;
+            boolean newer = latest != null && latest.takenAt().isAfter(start);
+            if (newer || wroteSince(start)) {
+                log.info("[GRAPH] Varredura em streaming não publicada: {}",
+                        newer ? "snapshot mais novo já publicado" : "escrita registrada durante a leitura");
+                return snapshotOf(graph);
+            }
+            return publish(graph, start);
+        }
+    }
+
+    /**
+     * Snapshot em memória, sem disparar varredura (pode ser null, estar expirado ou invalidado).
+     */
+    public GraphSnapshot peek() {
+        return current;
+    }
+
+    /**
+     * Snapshot em memória somente se ainda válido (dentro do TTL e não invalidado); senão null.
+     */
+    public GraphSnapshot fresh() {
+        GraphSnapshot s = current;
+        return isFresh(s) ? s : null;
+    }
+
+    /**
+     * Última verificação de mudanças feita na revalidação (null se nunca houve).
+     */
+    public GraphChangeDetector.Check lastCheck() {
+        return lastCheck;
+    }
+
+    private record OwnWrite(boolean following, Instant at) {}
+
+    /**
+     * Estado conhecido de "você segue login": primeiro as escritas feitas por nós desde o snapshot, depois o
+     * snapshot em memória se estiver dentro do TTL. null quando não há informação confiável.
+     */
+    public Boolean isFollowing(String login) {
+        OwnWrite own = ownWrites.get(login);
+        if (own != null) return own.following();
+        GraphSnapshot s = current;
+        if (s == null || !s.takenAt().plus(ttl).isAfter(Instant.now())) return null;
+        return followingLogins.contains(login);
+    }
+
+    /**
+     * Registra um follow/unfollow efetivado por nós: fica valendo para {@link #isFollowing} até o próximo
+     * snapshot e marca o atual como desatualizado.
+     */
+    public void recordWrite(String login, boolean following) {
+        Instant now = Instant.now();
+        ownWrites.put(login, new OwnWrite(following, now));
+        markWritten(now);
+    }
+
+    /**
+     * Marca o snapshot como desatualizado (ex.: após follow/unfollow). Ele continua servindo de base para a
+     * detecção de mudanças, que então relê só o lado afetado.
+     */
+    public void invalidate() {
+        markWritten(Instant.now());
+    }
+
+    private void markWritten(Instant at) {
+        synchronized (staleLock) {
+            if (at.isAfter(lastWriteAt)) lastWriteAt = at;
+            stale = true;
+        }
+    }
+
+    private boolean wroteSince(Instant start) {
+        synchronized (staleLock) {
+            return lastWriteAt.isAfter(start);
+        }
+    }
+
+    // Snapshot novo vale a partir de start: escritas registradas depois disso o mantêm invalidado.
+    private void markFresh(Instant start) {
+        synchronized (staleLock) {
+            stale = lastWriteAt.isAfter(start);
+        }
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    private boolean isFresh(GraphSnapshot s) {
+        return s != null && !stale && s.takenAt().plus(ttl).isAfter(Instant.now());
+    }
+
+    private GraphSnapshot load() {
+        Instant start = Instant.now();
+        return publish(loader.load(), start);
+    }
+
+    private GraphSnapshot revalidate(GraphSnapshot s) {
+        Instant start = Instant.now();
+        GraphChangeDetector.Check check;
+        try {
+            check = detector.check(s);
+        } catch (RuntimeException e) {
+            log.warn("[GRAPH] Detecção de mudanças falhou ({}); fazendo varredura completa", e.getMessage());
+            return load();
+        }
+        lastCheck = check;
+        log.info("[GRAPH] Verificação do snapshot v{}: mudança={} ({} requisições)",
+                s.version(), check.change(), check.requests());
+        return switch (check.change()) {
+            case NONE -> {
+                GraphSnapshot renewed = new GraphSnapshot(s.version(), Instant.now(), s.followers(), s.following(),
+                        s.diff(), s.followersFetchMs(), s.followingFetchMs(), s.totalFetchMs());
+                current = renewed;
+                forgetWritesBefore(start);
+                markFresh(start);
+                yield renewed;
+            }
+            case FOLLOWERS -> publish(loader.reloadFollowers(s.following()), start);
+            case FOLLOWING -> publish(loader.reloadFollowing(s.followers()), start);
+            case BOTH -> load();
+        };
+    }
+
+    // Escritas anteriores ao início da leitura já estão refletidas nela; as concorrentes continuam valendo.
+    private void forgetWritesBefore(Instant start) {
+        ownWrites.values().removeIf(w -> w.at().isBefore(start));
+    }
+
+    private GraphSnapshot snapshotOf(FollowGraphLoader.FollowGraph graph) {
+        return new GraphSnapshot(versions.incrementAndGet(), Instant.now(),
+                graph.followers(), graph.following(),
+                FollowGraphDiff.compute(graph.followers(), graph.following()),
+                graph.followersFetchMs(), graph.followingFetchMs(), graph.totalMs());
+    }
+
+    private GraphSnapshot publish(FollowGraphLoader.FollowGraph graph, Instant start) {
+        GraphSnapshot s = snapshotOf(graph);
+        Set<String> logins = new HashSet<>();
+        for (User u : graph.following()) logins.add(u.login());
+        followingLogins = logins;
+        current = s;
+        forgetWritesBefore(start);
+        markFresh(start);
+        log.info("[GRAPH] Snapshot v{} carregado: followers={} following={} nonFollowers={} ({} ms)",
+                s.version(), s.followers().size(), s.following().size(), s.diff().nonFollowers().size(), s.totalFetchMs());
+        return s;
+    }
+}
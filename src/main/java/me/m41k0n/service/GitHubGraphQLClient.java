@@ -1,13 +1,17 @@
 package me.m41k0n.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Instant;
 
 /**
  * Cliente mínimo para chamadas ao endpoint GraphQL do GitHub.
@@ -21,12 +25,19 @@ public class GitHubGraphQLClient {
     private static final String GRAPHQL_URL = "https://api.github.com/graphql";
 
     private final HttpClient httpClient;
+    private final GitHubRateLimiter rateLimiter;
+    private final ObjectMapper mapper = new ObjectMapper();
 
-    public GitHubGraphQLClient(HttpClient httpClient) {
+    public GitHubGraphQLClient(HttpClient httpClient, GitHubRateLimiter rateLimiter) {
         this.httpClient = httpClient;
+        this.rateLimiter = rateLimiter;
     }
 
-    public String execute(String graphqlQueryJson) {
+    /**
+     * Executa a query e devolve o JSON da resposta já como árvore, lida direto do stream HTTP
+     * (sem materializar o corpo como String).
+     */
+    public JsonNode execute(String graphqlQueryJson) {
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(GRAPHQL_URL))
@@ -37,17 +48,63 @@ public class GitHubGraphQLClient {
                     .POST(HttpRequest.BodyPublishers.ofString(graphqlQueryJson))
                     .build();
 
-            HttpResponse<String> resp = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() < 200 || resp.statusCode() >= 300) {
-                log.warn("[GraphQL] status={} body={}", resp.statusCode(), truncate(resp.body()));
-                throw new RuntimeException("GitHub GraphQL returned status " + resp.statusCode());
+            Result result = send(request);
+            if (result.status() < 200 || result.status() >= 300) {
+                log.warn("[GraphQL] status={} body={}", result.status(), truncate(String.valueOf(result.body())));
+                throw new RuntimeException("GitHub GraphQL returned status " + result.status());
             }
-            return resp.body();
+            return result.body();
         } catch (Exception e) {
             throw new RuntimeException("GraphQL request failed: " + e.getMessage(), e);
         }
     }
 
+    private record Result(int status, JsonNode body) {}
+
+    /**
+     * Envia via rate limiter compartilhado, reenviando quando o GitHub barra por rate limit
+     * (403/429 ou erro GraphQL do tipo RATE_LIMITED).
+     */
+    private Result send(HttpRequest request) throws Exception {
+        int attempt = 0;
+        while (true) {
+            rateLimiter.acquire(GitHubRateLimiter.Resource.GRAPHQL, 1);
+            HttpResponse<InputStream> resp = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            JsonNode body;
+            try (InputStream in = resp.body()) {
+                body = mapper.readTree(in);
+            }
+            boolean limited = rateLimiter.onResponse(GitHubRateLimiter.Resource.GRAPHQL, resp.statusCode(), resp.headers());
+            if (!limited && resp.statusCode() == 200) {
+                limited = readRateLimit(body);
+            }
+            if (!limited || attempt++ >= rateLimiter.maxRetries()) {
+                return new Result(resp.statusCode(), body);
+            }
+        }
+    }
+
+    /**
+     * Lê {@code data.rateLimit { cost remaining resetAt }} quando presente. Retorna true se a resposta
+     * indica RATE_LIMITED (orçamento de pontos esgotado).
+     */
+    private boolean readRateLimit(JsonNode root) {
+        if (root == null) return false;
+        JsonNode rl = root.path("data").path("rateLimit");
+        if (rl.isObject()) {
+            String resetAt = rl.path("resetAt").asText(null);
+            rateLimiter.onGraphQLRateLimit(rl.path("cost").asInt(1), rl.path("remaining").asInt(0),
+                    resetAt != null ? Instant.parse(resetAt) : null);
+        }
+        for (JsonNode err : root.path("errors")) {
+            if ("RATE_LIMITED".equals(err.path("type").asText())) {
+                rateLimiter.blockUntilReset(GitHubRateLimiter.Resource.GRAPHQL);
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String truncate(String s) {
         if (s == null) return "";
         return s.length() > 500 ? s.substring(0, 500) + "…" : s;
@@ -1,7 +1,5 @@
 package me.m41k0n.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import me.m41k0n.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,14 +20,11 @@ public class GitHubInsightsService {
     private static final Logger log = LoggerFactory.getLogger(GitHubInsightsService.class);
 
     private final GitHubService gitHubService;
-    private final APIConsume apiConsume;
-    private final GitHubGraphQLClient graphQLClient;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final EnrichmentCache enrichmentCache;
 
-    public GitHubInsightsService(GitHubService gitHubService, APIConsume apiConsume, GitHubGraphQLClient graphQLClient) {
+    public GitHubInsightsService(GitHubService gitHubService, EnrichmentCache enrichmentCache) {
         this.gitHubService = gitHubService;
-        this.apiConsume = apiConsume;
-        this.graphQLClient = graphQLClient;
+        this.enrichmentCache = enrichmentCache;
     }
 
     public static class FilterParams {
@@ -81,28 +76,38 @@ public class GitHubInsightsService {
         public final int page;
         public final int size;
         public final List<EnrichedUser> users;
+        public final Map<String, String> enrichmentErrors; // login -> motivo da falha ao enriquecer
 
         public PageResult(int totalCandidates, int totalMatched, int page, int size, List<EnrichedUser> users) {
+            this(totalCandidates, totalMatched, page, size, users, Map.of());
+        }
+
+        public PageResult(int totalCandidates, int totalMatched, int page, int size, List<EnrichedUser> users,
+                          Map<String, String> enrichmentErrors) {
             this.totalCandidates = totalCandidates;
             this.totalMatched = totalMatched;
             this.page = page;
             this.size = size;
             this.users = users;
+            this.enrichmentErrors = enrichmentErrors;
         }
     }
 
     /**
      * Aplica filtros sobre a sua lista de following (página solicitada) e devolve usuários filtrados com métricas.
+     * As métricas vêm do {@link EnrichmentCache}; apenas campos vencidos são buscados via GraphQL em lote
+     * (ver {@link UserGraphBatchLoader}).
      */
     public PageResult evaluateFilters(FilterParams params) {
         List<User> base = gitHubService.getFollowing(params.page, params.size);
         int totalCandidates = base.size();
+        UserGraphBatchLoader.Batch graph = enrichmentCache.load(base.stream().map(User::login).toList());
         List<EnrichedUser> enriched = base.stream()
-                .map(this::safeEnrich)
+                .map(u -> toEnriched(u, graph))
                 .filter(Objects::nonNull)
                 .filter(eu -> matchesAllFilters(eu, params))
                 .collect(Collectors.toList());
-        return new PageResult(totalCandidates, enriched.size(), params.page, params.size, enriched);
+        return new PageResult(totalCandidates, enriched.size(), params.page, params.size, enriched, graph.errors());
     }
 
     /** Preset: inativo > 180 dias E followers < 50 */
@@ -112,25 +117,23 @@ public class GitHubInsightsService {
         return evaluateFilters(p);
     }
 
-    private EnrichedUser safeEnrich(User u) {
-        try {
-            Instant lastPublic = fetchLastPublicActivity(u.login());
-            GraphInfo g = fetchGraphInfo(u.login());
-            return new EnrichedUser(
-                    u.login(), u.html_url(),
-                    lastPublic,
-                    g.lastPushAt,
-                    g.followersCount,
-                    g.reposCount,
-                    g.languages,
-                    g.isFollowingViewer,
-                    g.viewerIsFollowing,
-                    estimateContributions(u.login())
-            );
-        } catch (Exception ex) {
-            log.debug("[FILTER] Falha ao enriquecer {}: {}", u.login(), ex.getMessage());
+    private EnrichedUser toEnriched(User u, UserGraphBatchLoader.Batch graph) {
+        UserGraphBatchLoader.GraphInfo g = graph.infos().get(u.login());
+        if (g == null) {
+            log.debug("[FILTER] Sem métricas GraphQL para {}: {}", u.login(), graph.errors().get(u.login()));
             return null;
         }
+        return new EnrichedUser(
+                u.login(), u.html_url(),
+                g.lastActivity(),
+                g.lastPushAt(),
+                g.followersCount(),
+                g.reposCount(),
+                g.languages(),
+                g.isFollowingViewer(),
+                g.viewerIsFollowing(),
+                g.contributions()
+        );
     }
 
     private boolean matchesAllFilters(EnrichedUser u, FilterParams p) {
@@ -184,67 +187,4 @@ public class GitHubInsightsService {
         if (p.contribGt != null && !(u.contributionsEstimate > p.contribGt)) return false;
         return true;
     }
-
-    // ===== coleta de dados =====
-    private Instant fetchLastPublicActivity(String login) {
-        String url = "https://api.github.com/users/" + login + "/events/public?per_page=1";
-        String body = apiConsume.getData(url);
-        try {
-            JsonNode arr = mapper.readTree(body);
-            if (arr.isArray() && !arr.isEmpty()) {
-                String createdAt = arr.get(0).path("created_at").asText(null);
-                return createdAt == null ? null : Instant.parse(createdAt);
-            }
-        } catch (Exception e) {
-            log.debug("[FILTER] events/public inválido para {}: {}", login, e.getMessage());
-        }
-        return null;
-    }
-
-    private record GraphInfo(Instant lastPushAt, int followersCount, int reposCount, Set<String> languages,
-                             boolean isFollowingViewer, boolean viewerIsFollowing) {}
-
-    private GraphInfo fetchGraphInfo(String login) {
-        String query = """
-                { "query": "query($login:String!) {\\n  user(login:$login){\\n    followers{ totalCount }\\n    repositories(privacy: PUBLIC, first: 10, orderBy:{field:PUSHED_AT, direction:DESC}){\\n      totalCount\\n      nodes{ pushedAt updatedAt primaryLanguage{ name } }\\n    }\\n    isFollowingViewer\\n    viewerIsFollowing\\n  }\\n}",
-                  "variables": {"login": "%s"} }
-                """.formatted(login);
-        String resp = graphQLClient.execute(query);
-        try {
-            JsonNode root = mapper.readTree(resp).path("data").path("user");
-            int followers = root.path("followers").path("totalCount").asInt(0);
-            JsonNode repos = root.path("repositories");
-            int reposCount = repos.path("totalCount").asInt(0);
-            Instant lastPush = null;
-            Set<String> langs = new LinkedHashSet<>();
-            for (JsonNode n : repos.path("nodes")) {
-                String pushedAt = n.path("pushedAt").asText(null);
-                if (pushedAt != null) {
-                    Instant pi = Instant.parse(pushedAt);
-                    if (lastPush == null || pi.isAfter(lastPush)) lastPush = pi;
-                }
-                String lang = n.path("primaryLanguage").path("name").asText(null);
-                if (lang != null && !lang.isBlank()) langs.add(lang);
-            }
-            boolean isFollowingViewer = root.path("isFollowingViewer").asBoolean(false);
-            boolean viewerIsFollowing = root.path("viewerIsFollowing").asBoolean(false);
-            return new GraphInfo(lastPush, followers, reposCount, langs, isFollowingViewer, viewerIsFollowing);
-        } catch (Exception e) {
-            log.debug("[FILTER] GraphQL parse falhou para {}: {}", login, e.getMessage());
-            return new GraphInfo(null, 0, 0, Collections.emptySet(), false, true);
-        }
-    }
-
-    private int estimateContributions(String login) {
-        // Heurística simplificada: quantidade de eventos nas últimas páginas pequenas
-        try {
-            String url = "https://api.github.com/users/" + login + "/events/public?per_page=30";
-            String body = apiConsume.getData(url);
-            JsonNode arr = mapper.readTree(body);
-            if (arr.isArray()) return arr.size();
-        } catch (Exception e) {
-            // ignora
-        }
-        return 0;
-    }
 }
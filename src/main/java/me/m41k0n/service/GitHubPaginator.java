@@ -0,0 +1,187 @@
+package me.m41k0n.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Busca todas as páginas de um endpoint paginado do GitHub.
+ *
+ * A primeira página é lida de forma síncrona para descobrir o total de páginas pelo header
+ * {@code Link: rel="last"}; as demais são buscadas em paralelo no executor compartilhado
+ * (limitado por app.github.page-concurrency) e reagrupadas na ordem original.
+ */
+@Component
+public class GitHubPaginator {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubPaginator.class);
+
+    private static final Pattern LAST_PAGE = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"last\"");
+    private static final Pattern PAGE_PARAM = Pattern.compile("[?&]page=(\\d+)");
+
+    private final APIConsume apiConsume;
+    private final ExecutorService pageExecutor;
+
+    public GitHubPaginator(APIConsume apiConsume, @Qualifier("githubPageExecutor") ExecutorService pageExecutor) {
+        this.apiConsume = apiConsume;
+        this.pageExecutor = pageExecutor;
+    }
+
+    public <T> List<T> fetchAll(String baseUrl, int perPage, String label, Function<byte[], List<T>> parser) {
+        log.info("[PAGINATION] Buscando todas as páginas de {}", label);
+
+        ApiResponse first = apiConsume.getResponse(pagedUrl(baseUrl, perPage, 1));
+        List<T> all = new ArrayList<>(parser.apply(first.body()));
+        logPageCount(label, 1, all.size());
+
+        int lastPage = lastPage(first);
+        int page = 1;
+        int lastPageSize = all.size();
+        if (lastPage > 1) {
+            List<List<T>> pages = fetchConcurrently(baseUrl, perPage, label, parser, 2, lastPage);
+            for (List<T> p : pages) all.addAll(p);
+            page = lastPage;
+            lastPageSize = pages.get(pages.size() - 1).size();
+        }
+
+        // Sem header Link (ou lista cresceu durante a busca): segue sequencialmente até uma página incompleta
+        while (lastPageSize >= perPage) {
+            page++;
+            List<T> pageItems = parser.apply(apiConsume.getResponse(pagedUrl(baseUrl, perPage, page)).body());
+            logPageCount(label, page, pageItems.size());
+            all.addAll(pageItems);
+            lastPageSize = pageItems.size();
+        }
+
+        log.info("[PAGINATION] Total de {} obtido: {} ({} páginas)", label, all.size(), page);
+        return all;
+    }
+
+    /**
+     * Página já lida, com o número original (as páginas chegam fora de ordem em {@link #forEachPage}).
+     */
+    public record Page<T>(int number, List<T> items) {}
+
+    /**
+     * Como {@link #fetchAll}, mas entrega cada página ao consumidor assim que ela chega (na thread chamadora,
+     * em ordem de conclusão), em vez de esperar a lista completa.
+     */
+    public <T> void forEachPage(String baseUrl, int perPage, String label, Function<byte[], List<T>> parser,
+                                Consumer<Page<T>> onPage) {
+        ApiResponse first = apiConsume.getResponse(pagedUrl(baseUrl, perPage, 1));
+        List<T> firstItems = parser.apply(first.body());
+        logPageCount(label, 1, firstItems.size());
+        onPage.accept(new Page<>(1, firstItems));
+
+        int lastPage = lastPage(first);
+        int page = 1;
+        int lastPageSize = firstItems.size();
+        if (lastPage > 1) {
+            lastPageSize = streamConcurrently(baseUrl, perPage, label, parser, 2, lastPage, onPage);
+            page = lastPage;
+        }
+        while (lastPageSize >= perPage) {
+            page++;
+            List<T> pageItems = parser.apply(apiConsume.getResponse(pagedUrl(baseUrl, perPage, page)).body());
+            logPageCount(label, page, pageItems.size());
+            onPage.accept(new Page<>(page, pageItems));
+            lastPageSize = pageItems.size();
+        }
+    }
+
+    // Retorna o tamanho da página toPage, para o laço de continuação.
+    private <T> int streamConcurrently(String baseUrl, int perPage, String label, Function<byte[], List<T>> parser,
+                                       int fromPage, int toPage, Consumer<Page<T>> onPage) {
+        CompletionService<Page<T>> completion = new ExecutorCompletionService<>(pageExecutor);
+        List<Future<Page<T>>> futures = new ArrayList<>();
+        for (int p = fromPage; p <= toPage; p++) {
+            final int page = p;
+            futures.add(completion.submit(() -> {
+                List<T> items = parser.apply(apiConsume.getResponse(pagedUrl(baseUrl, perPage, page)).body());
+                logPageCount(label, page, items.size());
+                return new Page<>(page, items);
+            }));
+        }
+        int lastSize = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Page<T> done = completion.take().get();
+                if (done.number() == toPage) lastSize = done.items().size();
+                onPage.accept(done);
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida durante a paginação de " + label, e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Falha ao buscar páginas de " + label, cause);
+        } catch (RuntimeException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        }
+        return lastSize;
+    }
+
+    private <T> List<List<T>> fetchConcurrently(String baseUrl, int perPage, String label,
+                                                Function<byte[], List<T>> parser, int fromPage, int toPage) {
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (int p = fromPage; p <= toPage; p++) {
+            final int page = p;
+            futures.add(pageExecutor.submit(() -> {
+                List<T> items = parser.apply(apiConsume.getResponse(pagedUrl(baseUrl, perPage, page)).body());
+                logPageCount(label, page, items.size());
+                return items;
+            }));
+        }
+
+        List<List<T>> pages = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<T>> f : futures) {
+                pages.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida durante a paginação de " + label, e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Falha ao buscar páginas de " + label, cause);
+        }
+        return pages;
+    }
+
+    static int lastPage(ApiResponse response) {
+        String link = response.headers().firstValue("Link").orElse(null);
+        if (link == null) return 1;
+        Matcher last = LAST_PAGE.matcher(link);
+        if (!last.find()) return 1;
+        Matcher page = PAGE_PARAM.matcher(last.group(1));
+        return page.find() ? Integer.parseInt(page.group(1)) : 1;
+    }
+
+    static String pagedUrl(String baseUrl, int perPage, int page) {
+        return baseUrl + "?per_page=" + perPage + "&page=" + page;
+    }
+
+    private void logPageCount(String label, int page, int count) {
+        log.debug("[PAGINATION] Página {} de {} retornou {} itens", page, label, count);
+    }
+}
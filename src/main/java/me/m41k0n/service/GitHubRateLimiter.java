@@ -0,0 +1,196 @@
+package me.m41k0n.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agendador compartilhado por todo o tráfego para o GitHub (REST via {@link APIConsume} e GraphQL via
+ * {@link GitHubGraphQLClient}).
+ *
+ * Cada recurso tem um orçamento alimentado pelos headers X-RateLimit-* (e pelo campo rateLimit do GraphQL).
+ * Enquanto há folga, as requisições passam direto; abaixo de app.github.rate-limit.pace-below do limite,
+ * o restante é distribuído uniformemente até o reset (token bucket com reposição = restante / tempo até reset).
+ * Quando o orçamento acaba ou o GitHub devolve 403/429 com Retry-After, as requisições aguardam em fila
+ * em vez de falhar.
+ */
+@Component
+public class GitHubRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubRateLimiter.class);
+    private static final int DEFAULT_LIMIT = 5000;
+    private static final Duration SECONDARY_LIMIT_WAIT = Duration.ofSeconds(60);
+
+    public enum Resource { REST, GRAPHQL }
+
+    private final Map<Resource, Budget> budgets = new LinkedHashMap<>();
+    private final double paceBelow;
+    private final int reserve;
+    private final int maxRetries;
+
+    public GitHubRateLimiter(@Value("${app.github.rate-limit.pace-below:0.2}") double paceBelow,
+                             @Value("${app.github.rate-limit.reserve:10}") int reserve,
+                             @Value("${app.github.rate-limit.max-retries:3}") int maxRetries) {
+        this.paceBelow = paceBelow;
+        this.reserve = reserve;
+        this.maxRetries = maxRetries;
+        for (Resource r : Resource.values()) budgets.put(r, new Budget());
+    }
+
+    public int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Bloqueia até haver orçamento para uma requisição de custo {@code cost} no recurso informado.
+     */
+    public void acquire(Resource resource, int cost) {
+        Budget b = budgets.get(resource);
+        Instant slot;
+        b.waiting.incrementAndGet();
+        synchronized (b) {
+            slot = b.reserveSlot(Instant.now(), cost, paceBelow, reserve);
+        }
+        try {
+            long waitMs = Duration.between(Instant.now(), slot).toMillis();
+            if (waitMs > 0) {
+                if (waitMs > 1000) {
+                    log.info("[RATE-LIMIT] {} aguardando {} ms (restante={}, reset={})", resource, waitMs, b.remaining, b.resetAt);
+                }
+                Thread.sleep(waitMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida aguardando o rate limit do GitHub", e);
+        } finally {
+            b.waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Atualiza o orçamento a partir dos headers da resposta. Retorna true quando a requisição foi barrada
+     * por rate limit (403/429) e deve ser reenviada após nova chamada a {@link #acquire}.
+     */
+    public boolean onResponse(Resource resource, int status, HttpHeaders headers) {
+        Budget b = budgets.get(resource);
+        synchronized (b) {
+            headers.firstValue("X-RateLimit-Limit").map(GitHubRateLimiter::parseIntOrNull).ifPresent(v -> b.limit = v);
+            headers.firstValue("X-RateLimit-Remaining").map(GitHubRateLimiter::parseIntOrNull).ifPresent(v -> b.remaining = v);
+            headers.firstValue("X-RateLimit-Reset").map(GitHubRateLimiter::parseIntOrNull)
+                    .ifPresent(v -> b.resetAt = Instant.ofEpochSecond(v));
+
+            if (status != 403 && status != 429) return false;
+            Integer retryAfter = headers.firstValue("Retry-After").map(GitHubRateLimiter::parseIntOrNull).orElse(null);
+            Instant until;
+            if (retryAfter != null) {
+                until = Instant.now().plusSeconds(retryAfter);
+            } else if (b.remaining != null && b.remaining == 0 && b.resetAt != null) {
+                until = b.resetAt;
+            } else if (status == 429) {
+                until = Instant.now().plus(SECONDARY_LIMIT_WAIT);
+            } else {
+                return false; // 403 comum (permissão), não é rate limit
+            }
+            b.blockedUntil = until;
+            log.warn("[RATE-LIMIT] {} barrado (status={}); pausando até {}", resource, status, until);
+            return true;
+        }
+    }
+
+    /**
+     * Atualiza o orçamento GraphQL a partir do objeto {@code rateLimit { cost remaining resetAt }}.
+     */
+    public void onGraphQLRateLimit(int cost, int remaining, Instant resetAt) {
+        Budget b = budgets.get(Resource.GRAPHQL);
+        synchronized (b) {
+            b.remaining = remaining;
+            if (resetAt != null) b.resetAt = resetAt;
+            b.lastCost = cost;
+        }
+    }
+
+    /**
+     * Bloqueia o recurso até o próximo reset conhecido (ou 60s, se desconhecido).
+     */
+    public void blockUntilReset(Resource resource) {
+        Budget b = budgets.get(resource);
+        synchronized (b) {
+            Instant now = Instant.now();
+            b.remaining = 0;
+            b.blockedUntil = b.resetAt != null && b.resetAt.isAfter(now) ? b.resetAt : now.plus(SECONDARY_LIMIT_WAIT);
+            log.warn("[RATE-LIMIT] {} esgotado; pausando até {}", resource, b.blockedUntil);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        for (var e : budgets.entrySet()) {
+            Budget b = e.getValue();
+            Map<String, Object> m = new LinkedHashMap<>();
+            synchronized (b) {
+                m.put("limit", b.limit);
+                m.put("remaining", b.remaining);
+                m.put("resetAt", b.resetAt != null ? b.resetAt.toString() : null);
+                m.put("blockedUntil", b.blockedUntil != null && b.blockedUntil.isAfter(Instant.now()) ? b.blockedUntil.toString() : null);
+                m.put("pacing", b.isPacing(paceBelow));
+                m.put("queued", b.waiting.get());
+                if (e.getKey() == Resource.GRAPHQL) m.put("lastCost", b.lastCost);
+            }
+            resp.put(e.getKey().name().toLowerCase(), m);
+        }
+        return resp;
+    }
+
+    private static Integer parseIntOrNull(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Budget {
+        int limit = DEFAULT_LIMIT;
+        Integer remaining; // null até a primeira resposta
+        Instant resetAt;
+        Instant blockedUntil;
+        Instant nextSlot = Instant.EPOCH;
+        Integer lastCost;
+        final AtomicInteger waiting = new AtomicInteger();
+
+        boolean isPacing(double paceBelow) {
+            return remaining != null && resetAt != null && remaining < limit * paceBelow;
+        }
+
+        Instant reserveSlot(Instant now, int cost, double paceBelow, int reserve) {
+            if (resetAt != null && !now.isBefore(resetAt)) {
+                // janela expirou: até a próxima resposta, considera o orçamento cheio
+                remaining = null;
+                resetAt = null;
+            }
+            Instant slot = now;
+            if (blockedUntil != null && blockedUntil.isAfter(slot)) slot = blockedUntil;
+
+            if (remaining != null && resetAt != null) {
+                if (remaining - cost < reserve) {
+                    if (resetAt.isAfter(slot)) slot = resetAt;
+                } else if (isPacing(paceBelow)) {
+                    long windowMs = Math.max(0, Duration.between(now, resetAt).toMillis());
+                    long intervalMs = windowMs * cost / Math.max(1, remaining - reserve);
+                    if (nextSlot.isAfter(slot)) slot = nextSlot;
+                    nextSlot = slot.plusMillis(intervalMs);
+                }
+                remaining = Math.max(0, remaining - cost);
+            }
+            return slot;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package me.m41k0n.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import me.m41k0n.GitHubURL;
 import me.m41k0n.model.User;
 import org.springframework.stereotype.Service;
@@ -10,29 +8,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 //TODO olhar se todos os metodos aqui são usados tanto no modo menu quanto no modo api
 @Service
 public class GitHubService {
 
     private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
-    private static final int MAX_PAGES = 100;
-    private static final int PER_PAGE = 100;
-
     private final APIConsume apiConsume;
+    private final FollowGraphSnapshotService snapshotService;
+    private final UserPageParser userPageParser;
     private final DryRunService dryRunService;
     private final HistoryService historyService;
     private final ExclusionService exclusionService;
     private final EmailService emailService;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final MutationQueue mutationQueue;
+    private final EnrichmentCache enrichmentCache;
 
-    public GitHubService(APIConsume apiConsume, DryRunService dryRunService, HistoryService historyService,
-                         ExclusionService exclusionService, EmailService emailService) {
+    public GitHubService(APIConsume apiConsume, FollowGraphSnapshotService snapshotService, UserPageParser userPageParser,
+                         DryRunService dryRunService, HistoryService historyService,
+                         ExclusionService exclusionService, EmailService emailService, MutationQueue mutationQueue,
+                         EnrichmentCache enrichmentCache) {
         this.apiConsume = apiConsume;
+        this.snapshotService = snapshotService;
+        this.userPageParser = userPageParser;
         this.dryRunService = dryRunService;
         this.historyService = historyService;
         this.exclusionService = exclusionService;
         this.emailService = emailService;
+        this.mutationQueue = mutationQueue;
+        this.enrichmentCache = enrichmentCache;
     }
 
     public List<User> getNonFollowers() throws JsonProcessingException {
@@ -50,10 +56,15 @@ public class GitHubService {
         return allNonFollowers;
     }
 
-    public void unfollowNonFollowers() throws JsonProcessingException {
-        List<User> nonFollowers = getNonFollowers();
+    /**
+     * Unfollow em massa a partir do snapshot vigente do grafo. Retorna o snapshot usado.
+     */
+    public GraphSnapshot unfollowNonFollowers() throws JsonProcessingException {
+        GraphSnapshot snapshot = snapshotService.current();
+        List<User> nonFollowers = snapshot.diff().nonFollowers();
         boolean dryRun = dryRunService.isDryRunEnabled();
-        log.info("[UNFOLLOW] Iniciando execução em massa. candidatos={} dryRun={}", nonFollowers.size(), dryRun);
+        log.info("[UNFOLLOW] Iniciando execução em massa. candidatos={} dryRun={} snapshot=v{} (idade {}s)",
+                nonFollowers.size(), dryRun, snapshot.version(), snapshot.ageSeconds());
 
         int skippedExcluded = 0;
         int executed = 0;
@@ -66,11 +77,13 @@ public class GitHubService {
                 continue;
             }
             try {
-                boolean opDry = unfollow(u.login(), null);
-                if (!opDry) {
+                Outcome outcome = unfollow(u.login(), null);
+                if (outcome == Outcome.APPLIED) {
                     executed++;
                 }
-                log.info("[UNFOLLOW] {} {}", opDry ? "(dry-run) would unfollow" : "unfollowed", u.login());
+                if (!outcome.isSkipped()) {
+                    log.info("[UNFOLLOW] {} {}", outcome.isDryRun() ? "(dry-run) would unfollow" : "unfollowed", u.login());
+                }
             } catch (RuntimeException ex) {
                 log.warn("[UNFOLLOW] Falha ao desfazer follow de {}: {}", u.login(), ex.getMessage());
             }
@@ -78,6 +91,7 @@ public class GitHubService {
 
         emailService.sendUnfollowSummary(nonFollowers.size(), executed, skippedExcluded, dryRun);
         log.info("[UNFOLLOW] Finalizado. executados={} ignoradosPorExclusao={} dryRun={}", executed, skippedExcluded, dryRun);
+        return snapshot;
     }
 
     /**
@@ -89,13 +103,14 @@ public class GitHubService {
 
     /**
      * Returns a preview report with pagination for non-followers. Only performs GET requests.
+     * Served from the cached graph snapshot; a full (parallel) scan only happens when it expired.
      */
     public PreviewReport previewNonFollowers(int pageNumber, int pageSize) throws JsonProcessingException {
-        List<User> followers = getAllUsers(GitHubURL.FOLLOWERS, "followers");
-        List<User> following = getAllUsers(GitHubURL.FOLLOWING, "following");
+        GraphSnapshot snapshot = snapshotService.current();
+        List<User> followers = snapshot.followers();
+        List<User> following = snapshot.following();
 
-        List<User> nonFollowers = new ArrayList<>(following);
-        nonFollowers.removeAll(followers);
+        List<User> nonFollowers = snapshot.diff().nonFollowers();
 
         int totalNon = nonFollowers.size();
 
@@ -103,36 +118,68 @@ public class GitHubService {
         int to = Math.min(totalNon, from + pageSize);
         List<User> page = from >= to ? new ArrayList<>() : nonFollowers.subList(from, to);
 
-        return new PreviewReport(followers.size(), following.size(), totalNon, page, pageNumber, pageSize);
+        return new PreviewReport(followers.size(), following.size(), totalNon, page, pageNumber, pageSize, snapshot);
     }
 
     /**
      * Fetch one page of following directly from GitHub (no DB persistence)
      */
     public List<User> getFollowing(int pageNumber, int pageSize) {
-        String url = buildPagedUrl(GitHubURL.FOLLOWING, pageNumber, pageSize);
-        return parseUsers(apiConsume.getData(url));
+        String url = GitHubPaginator.pagedUrl(GitHubURL.FOLLOWING.getUrl(), pageSize, pageNumber);
+        return userPageParser.parse(apiConsume.getResponse(url).body());
     }
 
     /**
      * Fetch one page of followers directly from GitHub (no DB persistence)
      */
     public List<User> getFollowers(int pageNumber, int pageSize) {
-        String url = buildPagedUrl(GitHubURL.FOLLOWERS, pageNumber, pageSize);
-        return parseUsers(apiConsume.getData(url));
+        String url = GitHubPaginator.pagedUrl(GitHubURL.FOLLOWERS.getUrl(), pageSize, pageNumber);
+        return userPageParser.parse(apiConsume.getResponse(url).body());
     }
 
     /**
-     * Perform unfollow. Returns true when operation was dry-run.
+     * Resultado de um follow/unfollow: executado, simulado (dry-run) ou eliminado por já estar no estado pedido.
      */
-    public boolean unfollow(String username, String sourceListId) {
-        boolean dryRun = dryRunService.isDryRunEnabled();
+    public enum Outcome {
+        APPLIED, DRY_RUN, ALREADY_IN_STATE;
+
+        public boolean isDryRun() { return this == DRY_RUN; }
+        public boolean isSkipped() { return this == ALREADY_IN_STATE; }
+    }
+
+    public static final String ALREADY_IN_STATE = "already-in-state";
+
+    public Outcome unfollow(String username, String sourceListId) {
+        return unfollow(username, sourceListId, null);
+    }
+
+    /**
+     * Perform unfollow. Skipped (nothing sent, nothing recorded) when the cached follow graph, or
+     * knownFollowing when the graph has no answer, says you don't follow the user.
+     */
+    public Outcome unfollow(String username, String sourceListId, Boolean knownFollowing) {
+        return unfollow(username, sourceListId, knownFollowing, dryRunService.isDryRunEnabled());
+    }
+
+    /**
+     * Como {@link #unfollow(String, String, Boolean)}, mas com o modo dry-run decidido pelo chamador (ex.: o
+     * modo fixado na criação de um job), em vez do valor atual de {@link DryRunService}.
+     */
+    public Outcome unfollow(String username, String sourceListId, Boolean knownFollowing, boolean dryRun) {
+        if (alreadyInState(username, false, knownFollowing)) {
+            log.info("[WRITE] unfollow de {} eliminado: já não segue", username);
+            return Outcome.ALREADY_IN_STATE;
+        }
         if (!dryRun) {
-            int status = apiConsume.deleteStatus(GitHubURL.FOLLOWING.getUrl() + "/" + username);
-            if (status < 200 || status >= 300) {
-                throw new RuntimeException("GitHub API unfollow failed with status " + status);
+            if (!mutationQueue.execute(MutationQueue.Kind.UNFOLLOW, username, sourceListId)) {
+                // 404: conta removida/renomeada; registra o estado para as próximas checagens, sem histórico
+                snapshotService.recordWrite(username, false);
+                enrichmentCache.invalidate(username);
+                return Outcome.ALREADY_IN_STATE;
             }
             historyService.record(username, "unfollow", false, sourceListId);
+            snapshotService.recordWrite(username, false);
+            enrichmentCache.invalidate(username);
         } else {
             historyService.record(username, "unfollow", true, sourceListId);
         }
@@ -142,92 +189,83 @@ public class GitHubService {
         } catch (Exception ex) {
             log.debug("[MAIL] Falha ao notificar unfollow de {}: {}", username, ex.getMessage());
         }
-        return dryRun;
+        return dryRun ? Outcome.DRY_RUN : Outcome.APPLIED;
+    }
+
+    public Outcome follow(String username, String sourceListId) {
+        return follow(username, sourceListId, null);
     }
 
     /**
-     * Perform follow. Returns true when operation was dry-run.
+     * Perform follow. Skipped (nothing sent, nothing recorded) when the cached follow graph, or
+     * knownFollowing when the graph has no answer, says you already follow the user.
      */
-    public boolean follow(String username, String sourceListId) {
-        boolean dryRun = dryRunService.isDryRunEnabled();
+    public Outcome follow(String username, String sourceListId, Boolean knownFollowing) {
+        return follow(username, sourceListId, knownFollowing, dryRunService.isDryRunEnabled());
+    }
+
+    /**
+     * Como {@link #follow(String, String, Boolean)}, com o modo dry-run decidido pelo chamador.
+     */
+    public Outcome follow(String username, String sourceListId, Boolean knownFollowing, boolean dryRun) {
+        if (alreadyInState(username, true, knownFollowing)) {
+            log.info("[WRITE] follow de {} eliminado: já segue", username);
+            return Outcome.ALREADY_IN_STATE;
+        }
         if (!dryRun) {
-            int status = apiConsume.putEmpty(GitHubURL.FOLLOWING.getUrl() + "/" + username);
-            if (status < 200 || status >= 300) {
-                throw new RuntimeException("GitHub API follow failed with status " + status);
-            }
+            mutationQueue.execute(MutationQueue.Kind.FOLLOW, username, sourceListId);
             historyService.record(username, "follow", false, sourceListId);
+            snapshotService.recordWrite(username, true);
+            enrichmentCache.invalidate(username);
         } else {
             historyService.record(username, "follow", true, sourceListId);
         }
-        return dryRun;
+        return dryRun ? Outcome.DRY_RUN : Outcome.APPLIED;
     }
 
     /**
-     * Generic method to fetch all users with pagination
-     * Eliminates code duplication between followers and following
+     * Reenvia as escritas da lista de dead letters pelo caminho normal (follow/unfollow), sempre de verdade
+     * (recusado com IllegalStateException quando o dry-run está ativo, para não descartar entradas que nunca
+     * foram enviadas). Cada entrada só sai da lista quando o GitHub aceita a escrita ou ela já está no estado
+     * pedido; em qualquer falha (inclusive interrupção) a entrada continua lá.
      */
-    private List<User> getAllUsers(GitHubURL urlType, String userType) throws JsonProcessingException {
-        List<User> allUsers = new ArrayList<>();
-        int page = 1;
-        logStartPagedFetch(userType);
-
-        while (page <= MAX_PAGES) {
-            String url = buildPagedUrl(urlType, page, PER_PAGE);
-            logFetchingPage(userType, page);
-
-            List<User> pageUsers = parseUsers(apiConsume.getData(url));
-
-            logPageCount(userType, page, pageUsers.size());
-
-            if (pageUsers.isEmpty()) {
-                logNoMorePages(userType);
-                break;
-            }
-
-            allUsers.addAll(pageUsers);
-            page++;
-        }
-
-        if (page > MAX_PAGES) {
-            logMaxPagesReached(userType);
+    public Map<String, Object> retryDeadLetters() {
+        if (dryRunService.isDryRunEnabled()) {
+            throw new IllegalStateException("Dry-run ativo: desative-o para reenviar as dead letters");
         }
-        logTotalFetched(userType, allUsers.size());
-        return allUsers;
-    }
-
-    private String buildPagedUrl(GitHubURL type, int pageNumber, int pageSize) {
-        return type.getUrl() + "?per_page=" + pageSize + "&page=" + pageNumber;
-    }
-
-    private List<User> parseUsers(String response) {
-        try {
-            return mapper.readValue(response, new TypeReference<>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Erro ao processar resposta da API do GitHub", e);
+        List<MutationQueue.DeadLetter> letters = mutationQueue.deadLetters();
+        int applied = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (MutationQueue.DeadLetter dl : letters) {
+            if (Thread.currentThread().isInterrupted()) break;
+            try {
+                Outcome outcome = dl.kind() == MutationQueue.Kind.FOLLOW
+                        ? follow(dl.username(), dl.sourceListId(), null, false)
+                        : unfollow(dl.username(), dl.sourceListId(), null, false);
+                if (outcome.isSkipped()) {
+                    mutationQueue.removeDeadLetter(dl.kind(), dl.username());
+                    skipped++;
+                } else {
+                    applied++; // aceita: a própria fila já tirou a entrada
+                }
+            } catch (RuntimeException ex) {
+                failed++;
+            }
         }
+        log.info("[WRITES] Reenvio de dead letters: total={} aplicados={} ignorados={} falhas={}",
+                letters.size(), applied, skipped, failed);
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("retried", letters.size());
+        resp.put("applied", applied);
+        resp.put("skipped", skipped);
+        resp.put("failed", failed);
+        return resp;
     }
 
-    private void logStartPagedFetch(String userType) {
-        System.out.println("🔄 Fetching all " + userType + " with pagination...");
-    }
-
-    private void logFetchingPage(String userType, int page) {
-        System.out.println("📄 Fetching " + userType + " page " + page);
-    }
-
-    private void logPageCount(String userType, int page, int count) {
-        System.out.println("📊 Page " + page + " returned " + count + " " + userType);
-    }
-
-    private void logNoMorePages(String userType) {
-        System.out.println("✅ No more " + userType + " pages to fetch");
-    }
-
-    private void logMaxPagesReached(String userType) {
-        System.out.println("⚠️ Reached maximum page limit (" + MAX_PAGES + ") for " + userType);
-    }
-
-    private void logTotalFetched(String userType, int total) {
-        System.out.println("✅ Total " + userType + " fetched: " + total);
+    private boolean alreadyInState(String username, boolean wantFollowing, Boolean knownFollowing) {
+        Boolean following = snapshotService.isFollowing(username);
+        if (following == null) following = knownFollowing;
+        return following != null && following == wantFollowing;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package me.m41k0n.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.m41k0n.GitHubURL;
+import me.m41k0n.model.User;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detecta, com poucas requisições, se o grafo de follows mudou desde um {@link GraphSnapshot}.
+ *
+ * Compara os totais de followers/following de {@code GET /user} com os tamanhos das listas do snapshot e,
+ * quando o total bate, a primeira página de cada lista (o GitHub lista do mais recente para o mais antigo,
+ * então entradas novas aparecem nela). Todas as leituras passam pelo cache condicional do {@link APIConsume}:
+ * sem mudança, o GitHub responde 304 e não consome rate limit. Totais iguais já implicam o mesmo número de
+ * páginas (rel="last"), então o header Link não precisa ser lido à parte.
+ */
+@Component
+public class GraphChangeDetector {
+
+    static final int PROBE_PAGE_SIZE = 100;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public enum Change { NONE, FOLLOWERS, FOLLOWING, BOTH }
+
+    /**
+     * Resultado de uma verificação: o que mudou, os totais atuais e quantas requisições foram feitas.
+     */
+    public record Check(Change change, int followers, int following, int requests, Instant checkedAt) {
+
+        public Map<String, Object> describe() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("change", change.name());
+            m.put("followers", followers);
+            m.put("following", following);
+            m.put("requests", requests);
+            m.put("checkedAt", checkedAt.toString());
+            return m;
+        }
+    }
+
+    private final APIConsume apiConsume;
+    private final UserPageParser parser;
+
+    public GraphChangeDetector(APIConsume apiConsume, UserPageParser parser) {
+        this.apiConsume = apiConsume;
+        this.parser = parser;
+    }
+
+    public record Totals(int followers, int following) {}
+
+    /**
+     * Totais atuais de followers/following (uma requisição GET /user, normalmente 304).
+     */
+    public Totals totals() {
+        ApiResponse user = apiConsume.getResponse(GitHubURL.USER.getUrl());
+        if (!user.isSuccessful()) {
+            throw new RuntimeException("GET /user falhou com status " + user.statusCode());
+        }
+        JsonNode node = readTree(user.body());
+        return new Totals(node.path("followers").asInt(-1), node.path("following").asInt(-1));
+    }
+
+    public Check check(GraphSnapshot snapshot) {
+        Totals totals = totals();
+        int[] requests = {1};
+        int followers = totals.followers();
+        int following = totals.following();
+
+        boolean followersChanged = followers != snapshot.followers().size()
+                || firstPageDiffers(GitHubURL.FOLLOWERS, snapshot.followers(), requests);
+        boolean followingChanged = following != snapshot.following().size()
+                || firstPageDiffers(GitHubURL.FOLLOWING, snapshot.following(), requests);
+
+        Change change = followersChanged && followingChanged ? Change.BOTH
+                : followersChanged ? Change.FOLLOWERS
+                : followingChanged ? Change.FOLLOWING
+                : Change.NONE;
+        return new Check(change, followers, following, requests[0], Instant.now());
+    }
+
+    // Compara os logins da primeira página com o início da lista do snapshot (mesma ordem da API).
+    private boolean firstPageDiffers(GitHubURL url, List<User> known, int[] requests) {
+        requests[0]++;
+        ApiResponse page = apiConsume.getResponse(GitHubPaginator.pagedUrl(url.getUrl(), PROBE_PAGE_SIZE, 1));
+        if (!page.isSuccessful()) return true;
+        List<User> current = parser.parse(page.body());
+        int expected = Math.min(PROBE_PAGE_SIZE, known.size());
+        if (current.size() != expected) return true;
+        for (int i = 0; i < expected; i++) {
+            if (!current.get(i).login().equals(known.get(i).login())) return true;
+        }
+        return false;
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao processar resposta de GET /user", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Foto imutável do grafo de follows (followers, following e a diferença entre eles) em um instante.
+ * {@code version} cresce a cada nova leitura completa. As listas são cópias imutáveis, já que o mesmo
+ * snapshot é compartilhado por todos os leitores.
+ */
+public record GraphSnapshot(long version, Instant takenAt, List<User> followers, List<User> following,
+                            FollowGraphDiff.Result diff,
+                            long followersFetchMs, long followingFetchMs, long totalFetchMs) {
+
+    public GraphSnapshot {
+        followers = List.copyOf(followers);
+        following = List.copyOf(following);
+    }
+
+    public long ageSeconds() {
+        return Duration.between(takenAt, Instant.now()).toSeconds();
+    }
+
+    /**
+     * Resumo para respostas da API: { id, takenAt, ageSeconds, followers, following, nonFollowers, timings }.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", version);
+        m.put("takenAt", takenAt.toString());
+        m.put("ageSeconds", ageSeconds());
+        m.put("followers", followers.size());
+        m.put("following", following.size());
+        m.put("nonFollowers", diff.nonFollowers().size());
+        Map<String, Object> timings = new LinkedHashMap<>();
+        timings.put("followersMs", followersFetchMs);
+        timings.put("followingMs", followingFetchMs);
+        timings.put("totalMs", totalFetchMs);
+        m.put("timings", timings);
+        return m;
+    }
+}
@@ -0,0 +1,227 @@
+package me.m41k0n.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação write-behind do histórico de follow/unfollow.
+ *
+ * Cada {@link #record} apenas enfileira a linha (id e timestamp já definidos no momento da ação); uma thread
+ * dedicada grava em lotes via JDBC batch numa única transação, quando o lote atinge
+ * app.history.write-behind.batch-size ou após app.history.write-behind.flush-ms. Como o SQLite tem um único
+ * writer, isso troca N commits por um. A fila é limitada (queue-capacity): se encher, quem grava aguarda.
+ *
+ * Leituras do histórico chamam {@link #flush()} antes para enxergar o que ainda está na fila. No shutdown
+ * a fila é esvaziada. Com app.history.write-behind.enabled=false cada registro é gravado na hora (modo síncrono).
+ *
+ * O histórico alimenta o undo e o skipProcessed, então nenhuma linha é descartada em caso de erro: um lote que
+ * falha (ex.: SQLITE_BUSY, com JPA e JdbcTemplate disputando o mesmo arquivo) é reenviado com backoff e, se
+ * continuar falhando, gravado linha a linha; as linhas que ainda falharem voltam para a próxima gravação. No
+ * modo síncrono o erro é repassado a quem chamou {@link #record}.
+ */
+@Component
+public class HistoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryRecorder.class);
+    // OR IGNORE: um lote reenviado após um commit que chegou a ser aplicado não duplica as linhas (ids fixos)
+    private static final String INSERT_SQL =
+            "INSERT OR IGNORE INTO history (id, username, action, timestamp, source_list_id, dry_run) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 100;
+
+    record Row(String id, String username, String action, String timestamp, String sourceListId, int dryRun) {}
+
+    private final DataSource dataSource;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long flushMs;
+    private final BlockingQueue<Row> queue;
+    private final List<Row> failed = new ArrayList<>(); // guardado por writeLock; regravadas no próximo flush
+    private final Object writeLock = new Object();
+    private final Object signal = new Object();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public HistoryRecorder(DataSource dataSource,
+                           @Value("${app.history.write-behind.enabled:true}") boolean writeBehind,
+                           @Value("${app.history.write-behind.batch-size:200}") int batchSize,
+                           @Value("${app.history.write-behind.flush-ms:50}") long flushMs,
+                           @Value("${app.history.write-behind.queue-capacity:10000}") int queueCapacity) {
+        this.dataSource = dataSource;
+        this.writeBehind = writeBehind;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushMs = Math.max(1, flushMs);
+        this.queue = new LinkedBlockingQueue<>(Math.max(this.batchSize, queueCapacity));
+        if (writeBehind) {
+            flusher = new Thread(this::runFlusher, "history-writer");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            flusher = null;
+        }
+    }
+
+    public void record(String username, String action, boolean dryRun, String sourceListId) {
+        Row row = new Row(UUID.randomUUID().toString(), username, action, Instant.now().toString(),
+                sourceListId, dryRun ? 1 : 0);
+        if (!writeBehind) {
+            synchronized (writeLock) {
+                try {
+                    writeWithRetry(List.of(row));
+                } catch (SQLException e) {
+                    throw new RuntimeException("Falha ao gravar histórico de " + username + ": " + e.getMessage(), e);
+                }
+            }
+            return;
+        }
+        try {
+            queue.put(row);
+            if (queue.size() >= batchSize) {
+                synchronized (signal) {
+                    signal.notify();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida ao registrar histórico de " + username, e);
+        }
+    }
+
+    /**
+     * Grava imediatamente tudo o que está na fila (no thread chamador), incluindo linhas de gravações
+     * anteriores que falharam.
+     */
+    public void flush() {
+        if (!writeBehind) return;
+        synchronized (writeLock) {
+            List<Row> pending = new ArrayList<>(failed);
+            failed.clear();
+            queue.drainTo(pending, Math.max(0, batchSize - pending.size()));
+            while (!pending.isEmpty()) {
+                writeOrKeep(pending);
+                pending = new ArrayList<>();
+                queue.drainTo(pending, batchSize);
+            }
+        }
+    }
+
+    public int pending() {
+        synchronized (writeLock) {
+            return queue.size() + failed.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!writeBehind) return;
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        int lost = pending();
+        if (lost > 0) {
+            log.error("[HISTORY] {} registros de histórico não puderam ser gravados no shutdown", lost);
+        } else {
+            log.info("[HISTORY] Fila de histórico esvaziada no shutdown");
+        }
+    }
+
+    // Acorda a cada flush-ms, ou antes quando a fila já tem um lote completo. As linhas só saem da fila
+    // dentro de flush() (sob writeLock), então um flush() de leitura sempre enxerga tudo o que foi registrado.
+    private void runFlusher() {
+        while (running) {
+            try {
+                synchronized (signal) {
+                    if (queue.size() < batchSize) signal.wait(flushMs);
+                }
+            } catch (InterruptedException e) {
+                if (!running) break;
+            }
+            flush();
+        }
+    }
+
+    // Lote com novas tentativas; se ainda falhar, linha a linha. O que não for gravado fica em failed.
+    private void writeOrKeep(List<Row> rows) {
+        try {
+            writeWithRetry(rows);
+            return;
+        } catch (SQLException e) {
+            log.warn("[HISTORY] Lote de {} registros falhou após {} tentativas ({}); gravando linha a linha",
+                    rows.size(), WRITE_ATTEMPTS, e.getMessage());
+        }
+        for (Row r : rows) {
+            try {
+                write(List.of(r));
+            } catch (SQLException e) {
+                failed.add(r);
+            }
+        }
+        if (!failed.isEmpty()) {
+            log.error("[HISTORY] {} registros de histórico aguardando nova tentativa de gravação", failed.size());
+        }
+    }
+
+    private void writeWithRetry(List<Row> rows) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(rows);
+                return;
+            } catch (SQLException e) {
+                if (attempt >= WRITE_ATTEMPTS) throw e;
+                log.debug("[HISTORY] Falha ao gravar lote (tentativa {}): {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS << (attempt - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void write(List<Row> rows) throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            boolean autoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+                for (Row r : rows) {
+                    ps.setString(1, r.id());
+                    ps.setString(2, r.username());
+                    ps.setString(3, r.action());
+                    ps.setString(4, r.timestamp());
+                    ps.setString(5, r.sourceListId());
+                    ps.setInt(6, r.dryRun());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+            log.debug("[HISTORY] {} registros gravados em lote", rows.size());
+        }
+    }
+}
@@ -5,37 +5,99 @@ import me.m41k0n.repository.HistoryRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class HistoryService {
 
+    // Abaixo do limite de parâmetros por statement do SQLite.
+    private static final int IN_CHUNK = 500;
+    private static final int MAX_PAGE = 1000;
+
+    /**
+     * Página keyset do histórico; nextCursor é null na última página.
+     */
+    public record HistoryPage(List<HistoryEntity> items, String nextCursor) {}
+
     private final HistoryRepository historyRepository;
+    private final HistoryRecorder recorder;
 
-    public HistoryService(HistoryRepository historyRepository) {
+    public HistoryService(HistoryRepository historyRepository, HistoryRecorder recorder) {
         this.historyRepository = historyRepository;
+        this.recorder = recorder;
     }
 
+    /**
+     * Registra a ação no histórico (write-behind: gravada em lote pelo {@link HistoryRecorder}).
+     */
     public void record(String username, String action, boolean dryRun, String sourceListId) {
-        HistoryEntity h = new HistoryEntity();
-        h.setUsername(username);
-        h.setAction(action);
-        h.setSourceListId(sourceListId);
-        h.setDryRun(dryRun ? 1 : 0);
-        // timestamp created at persist if null
-        historyRepository.save(h);
+        recorder.record(username, action, dryRun, sourceListId);
     }
 
     public List<HistoryEntity> search(String username, String action, Instant since) {
+        recorder.flush();
         String sinceIso = since != null ? since.toString() : null;
         return historyRepository.search(username, action, sinceIso);
     }
+    /**
+     * Página de {@link #search} por cursor (mais recentes primeiro). after é o nextCursor da página anterior.
+     */
+    public HistoryPage searchPage(String username, String action, Instant since, String after, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        int size = Math.min(limit, MAX_PAGE);
+        String[] key = after != null && !after.isBlank() ? KeysetCursor.decode(after, 2) : new String[]{null, null};
+        recorder.flush();
+        List<HistoryEntity> rows = historyRepository.searchPage(username, action,
+                since != null ? since.toString() : null, key[0], key[1], size + 1);
+        if (rows.size() <= size) return new HistoryPage(rows, null);
+        List<HistoryEntity> page = rows.subList(0, size);
+        HistoryEntity last = page.get(size - 1);
+        return new HistoryPage(page, KeysetCursor.encode(last.getTimestamp(), last.getId()));
+    }
+
+    /**
+     * Percorre o resultado de {@link #search} linha a linha (cursor), para exportações de qualquer tamanho.
+     */
+    public void forEach(String username, String action, Instant since, Consumer<HistoryEntity> sink) {
+        recorder.flush();
+        historyRepository.forEach(username, action, since != null ? since.toString() : null, sink);
+    }
 //TODO ver esses 2 métodos se são usados
     public boolean alreadyProcessed(String username, String action) {
+        recorder.flush();
         return historyRepository.existsByUsernameAndActionAndDryRun(username, action, 0);
     }
 
+    /**
+     * Quais dos usernames já tiveram a ação efetivamente aplicada, em consultas IN de até 500 nomes
+     * (em vez de uma consulta por username).
+     */
+    public Set<String> processedUsernames(Collection<String> usernames, String action) {
+        recorder.flush();
+        Set<String> processed = new HashSet<>();
+        List<String> all = new ArrayList<>(usernames);
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            processed.addAll(historyRepository.findProcessedUsernames(action,
+                    all.subList(from, Math.min(all.size(), from + IN_CHUNK))));
+        }
+        return processed;
+    }
+
+    /**
+     * Itens da lista que já tiveram a ação efetivamente aplicada, numa única consulta.
+     */
+    public Set<String> processedUsernamesInList(String listId, String action) {
+        recorder.flush();
+        return new HashSet<>(historyRepository.findProcessedUsernamesInList(listId, action));
+    }
+
     public List<HistoryEntity> findUnfollowsSince(Instant since) {
+        recorder.flush();
         return historyRepository.findByActionAndDryRunAndTimestampGreaterThanEqual("unfollow", 0, since.toString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package me.m41k0n.service;
+
+import me.m41k0n.entity.HttpCacheEntity;
+import me.m41k0n.repository.HttpCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de respostas GET com validadores (ETag / Last-Modified) para requisições condicionais.
+ *
+ * Dois níveis: memória (LRU limitado por app.http-cache.memory-entries) e SQLite (tabela http_cache),
+ * para que o cache sobreviva a reinícios. Respostas 304 do GitHub não consomem rate limit.
+ */
+@Component
+public class HttpResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpResponseCache.class);
+
+    public record Entry(String etag, String lastModified, String link, byte[] body) {}
+
+    private final HttpCacheRepository repository;
+    private final boolean enabled;
+    private final Map<String, Entry> memory;
+
+    public HttpResponseCache(HttpCacheRepository repository,
+                             @Value("${app.http-cache.enabled:true}") boolean enabled,
+                             @Value("${app.http-cache.memory-entries:500}") int memoryEntries) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    public Entry lookup(String url) {
+        if (!enabled) return null;
+        synchronized (memory) {
+            Entry e = memory.get(url);
+            if (e != null) return e;
+        }
+        try {
+            Entry loaded = repository.findById(url)
+                    .map(c -> new Entry(c.getEtag(), c.getLastModified(), c.getLink(), c.getBody()))
+                    .orElse(null);
+            if (loaded != null) {
+                synchronized (memory) {
+                    memory.put(url, loaded);
+                }
+            }
+            return loaded;
+        } catch (RuntimeException ex) {
+            log.debug("[HTTP-CACHE] Falha ao ler cache persistido de {}: {}", url, ex.getMessage());
+            return null;
+        }
+    }
+
+    public void store(String url, String etag, String lastModified, String link, byte[] body) {
+        if (!enabled || (etag == null && lastModified == null)) return;
+        Entry entry = new Entry(etag, lastModified, link, body);
+        synchronized (memory) {
+            memory.put(url, entry);
+        }
+        persist(url, entry);
+    }
+
+    // SQLite tem um único writer: serializa as gravações vindas das threads de paginação
+    private synchronized void persist(String url, Entry entry) {
+        try {
+            HttpCacheEntity c = new HttpCacheEntity();
+            c.setUrl(url);
+            c.setEtag(entry.etag());
+            c.setLastModified(entry.lastModified());
+            c.setLink(entry.link());
+            c.setBody(entry.body());
+            repository.save(c);
+        } catch (RuntimeException ex) {
+            log.debug("[HTTP-CACHE] Falha ao persistir cache de {}: {}", url, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package me.m41k0n.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginação keyset: os valores da chave de ordenação da última linha da página,
+ * codificados em Base64 URL-safe. O cliente só devolve o token no parâmetro "after".
+ */
+public final class KeysetCursor {
+
+    private static final char SEP = '\n';
+
+    private KeysetCursor() {}
+
+    public static String encode(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(String.valueOf(SEP), keys).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o token esperando exatamente {@code parts} valores.
+     */
+    public static String[] decode(String token, int parts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] keys = raw.split(String.valueOf(SEP), -1);
+            if (keys.length == parts) return keys;
+        } catch (IllegalArgumentException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+}
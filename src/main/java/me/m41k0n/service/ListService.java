@@ -4,9 +4,14 @@ import me.m41k0n.entity.ListEntity;
 import me.m41k0n.entity.ListItemEntity;
 import me.m41k0n.repository.ListItemRepository;
 import me.m41k0n.repository.ListRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.*;
 
 @Service
@@ -15,44 +20,60 @@ public class ListService {
     private final ListRepository listRepository;
     private final ListItemRepository listItemRepository;
     private final HistoryService historyService;
-    private final GitHubService gitHubService;
+    private final UnfollowJobService jobService;
+    private final ExclusionService exclusionService;
+    private final RelationshipPlanner planner;
 
-    public ListService(ListRepository listRepository, ListItemRepository listItemRepository, HistoryService historyService, GitHubService gitHubService) {
+    public ListService(ListRepository listRepository, ListItemRepository listItemRepository, HistoryService historyService,
+                       UnfollowJobService jobService, ExclusionService exclusionService, RelationshipPlanner planner) {
         this.listRepository = listRepository;
         this.listItemRepository = listItemRepository;
         this.historyService = historyService;
-        this.gitHubService = gitHubService;
+        this.jobService = jobService;
+        this.exclusionService = exclusionService;
+        this.planner = planner;
     }
 
+    private static final int MAX_ITEMS_PAGE = 1000;
+
+    private static final Map<String, String> SORTABLE = Map.of(
+            "name", "name", "createdAt", "createdAt", "updatedAt", "updatedAt", "count", "itemCount");
+
     public List<Map<String, Object>> findAllWithCounts() {
-        List<ListEntity> lists = listRepository.findAll();
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (ListEntity le : lists) {
-            Map<String, Object> row = new HashMap<>();
-            row.put("id", le.getId());
-            row.put("name", le.getName());
-            row.put("createdAt", le.getCreatedAt());
-            row.put("updatedAt", le.getUpdatedAt());
-            row.put("count", listItemRepository.findByListId(le.getId()).size());
-            result.add(row);
+        return listRepository.findSummaries(Pageable.unpaged()).map(ListService::toRow).getContent();
+    }
+
+    /**
+     * Página de listas com contagem de itens, numa única consulta agregada.
+     * page é 1-based; sort ∈ {name, createdAt, updatedAt, count}; direction ∈ {asc, desc}.
+     */
+    public Page<Map<String, Object>> findAllWithCounts(int page, int size, String sort, String direction) {
+        String property = SORTABLE.get(sort == null ? "name" : sort);
+        if (property == null) {
+            throw new IllegalArgumentException("Invalid sort: " + sort + " (use name, createdAt, updatedAt or count)");
         }
-        return result;
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(Math.max(0, page - 1), Math.max(1, size), Sort.by(dir, property));
+        return listRepository.findSummaries(pageable).map(ListService::toRow);
+    }
+
+    private static Map<String, Object> toRow(ListRepository.ListSummary s) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", s.getId());
+        row.put("name", s.getName());
+        row.put("createdAt", s.getCreatedAt());
+        row.put("updatedAt", s.getUpdatedAt());
+        row.put("count", s.getItemCount());
+        return row;
     }
 
     @Transactional
     public ListEntity create(String name, List<String> items) {
         ListEntity le = new ListEntity();
         le.setName(name);
-        le = listRepository.save(le);
-        if (items != null) {
-            for (String u : items) {
-                ListItemEntity item = new ListItemEntity();
-                item.setListId(le.getId());
-                item.setUsername(u);
-                item.setList(le);
-                listItemRepository.save(item);
-            }
-        }
+        le = listRepository.saveAndFlush(le);
+        listItemRepository.insertIgnoringDuplicates(le.getId(), normalize(items));
+        exclusionService.invalidate();
         return le;
     }
 
@@ -68,6 +89,32 @@ public class ListService {
         return resp;
     }
 
+    /**
+     * Como {@link #get}, mas com os itens paginados por cursor (ordem alfabética de username).
+     * Inclui nextCursor (null na última página); não conta os itens, para o custo por página ser constante.
+     */
+    public Map<String, Object> getPage(String id, String after, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        int size = Math.min(limit, MAX_ITEMS_PAGE);
+        ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
+        String from = after != null && !after.isBlank() ? KeysetCursor.decode(after, 1)[0] : "";
+        List<String> rows = listItemRepository.findUsernamesAfter(id, from, PageRequest.of(0, size + 1));
+        List<String> items = rows.size() > size ? rows.subList(0, size) : rows;
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("id", le.getId());
+        resp.put("name", le.getName());
+        resp.put("createdAt", le.getCreatedAt());
+        resp.put("updatedAt", le.getUpdatedAt());
+        resp.put("items", items);
+        resp.put("nextCursor", rows.size() > size ? KeysetCursor.encode(items.get(size - 1)) : null);
+        return resp;
+    }
+
+    /**
+     * Atualiza nome e/ou itens. Os itens são aplicados por diferença: só os usernames removidos são
+     * apagados e só os novos são inseridos, em lote.
+     */
     @Transactional
     public ListEntity update(String id, String name, List<String> items) {
         ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
@@ -75,75 +122,87 @@ public class ListService {
             le.setName(name);
         }
         if (items != null) {
-            listItemRepository.deleteByListId(id);
-            for (String u : items) {
-                ListItemEntity item = new ListItemEntity();
-                item.setListId(id);
-                item.setUsername(u);
-                item.setList(le);
-                listItemRepository.save(item);
-            }
+            Set<String> wanted = normalize(items);
+            Set<String> current = new HashSet<>(listItemRepository.findUsernamesByListId(id));
+            List<String> removed = current.stream().filter(u -> !wanted.contains(u)).toList();
+            List<String> added = wanted.stream().filter(u -> !current.contains(u)).toList();
+            touchIfChanged(le, listItemRepository.deleteUsernames(id, removed)
+                    + listItemRepository.insertIgnoringDuplicates(id, added));
         }
+        exclusionService.invalidate();
         return listRepository.save(le);
     }
 
+    /**
+     * Adiciona e remove usernames da lista sem reescrevê-la. Usernames já presentes (em add) ou ausentes
+     * (em remove) são ignorados. Retorna { added, removed, count }.
+     */
     @Transactional
-    public void delete(String id) {
+    public Map<String, Object> modifyItems(String id, List<String> add, List<String> remove) {
         ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
-        listRepository.delete(le);
-    }
+        int removed = listItemRepository.deleteUsernames(id, normalize(remove));
+        int added = listItemRepository.insertIgnoringDuplicates(id, normalize(add));
+        touchIfChanged(le, added + removed);
+        listRepository.save(le);
+        exclusionService.invalidate();
 
-    public Map<String, Object> apply(String id, String action, boolean skipProcessed) {
-        ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
-        List<ListItemEntity> items = listItemRepository.findByListId(id);
-        int applied = 0;
-        int skipped = 0;
-        boolean dryRun = false;
-        List<Map<String, Object>> details = new ArrayList<>();
-
-        for (ListItemEntity item : items) {
-            var result = processListItem(action, skipProcessed, le, item);
-            if (result.skipped) {
-                skipped++;
-            } else {
-                applied++;
-                dryRun = dryRun || result.opDry;
-            }
-            details.add(result.detail);
-        }
-        return buildApplyResponse(applied, skipped, details, dryRun);
-    }
-
-    private Map<String, Object> buildApplyResponse(int applied, int skipped, List<Map<String, Object>> details, boolean dryRun) {
         Map<String, Object> resp = new HashMap<>();
-        resp.put("applied", applied);
-        resp.put("skipped", skipped);
-        resp.put("details", details);
-        resp.put("dryRun", dryRun);
+        resp.put("id", id);
+        resp.put("added", added);
+        resp.put("removed", removed);
+        resp.put("count", listItemRepository.countByListId(id));
+        resp.put("updatedAt", le.getUpdatedAt());
         return resp;
     }
 
-    private record ItemResult(boolean skipped, boolean opDry, Map<String, Object> detail) {}
+    @Transactional
+    public void delete(String id) {
+        ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
+        listItemRepository.deleteByListId(id);
+        listRepository.delete(le);
+        exclusionService.invalidate();
+    }
 
-    private ItemResult processListItem(String action, boolean skipProcessed, ListEntity le, ListItemEntity item) {
-        String username = item.getUsername();
-        Map<String, Object> d = new HashMap<>();
-        d.put("username", username);
-        d.put("action", action);
+    // Itens mudam fora da entidade (JDBC), então o @PreUpdate não dispara sozinho.
+    private static void touchIfChanged(ListEntity le, int changedRows) {
+        if (changedRows > 0) le.setUpdatedAt(Instant.now().toString());
+    }
 
-        if (skipProcessed && historyService.alreadyProcessed(username, action)) {
-            d.put("skippedReason", "already-" + action);
-            return new ItemResult(true, false, d);
+    private static Set<String> normalize(List<String> usernames) {
+        Set<String> out = new LinkedHashSet<>();
+        if (usernames == null) return out;
+        for (String u : usernames) {
+            if (u != null && !u.isBlank()) out.add(u.trim());
         }
+        return out;
+    }
 
-        boolean opDry;
-        if ("unfollow".equalsIgnoreCase(action)) {
-            opDry = gitHubService.unfollow(username, le.getId());
-        } else if ("follow".equalsIgnoreCase(action)) {
-            opDry = gitHubService.follow(username, le.getId());
-        } else {
+    /**
+     * Agenda um job que aplica follow/unfollow a todos os itens da lista e o devolve sem esperar as escritas.
+     * Ação e lista são validadas aqui; no job, o {@link RelationshipPlanner} resolve quais itens você já segue
+     * (checagens individuais ou snapshot do grafo, o que custar menos requisições) e o plano vai no resumo do
+     * job. As escritas passam pela {@link MutationQueue}; as que falham de vez contam em failed, ficam na lista
+     * de dead letters e não interrompem o restante da lista.
+     */
+    public UnfollowJob apply(String id, String action, boolean skipProcessed) {
+        if (!"follow".equalsIgnoreCase(action) && !"unfollow".equalsIgnoreCase(action)) {
             throw new IllegalArgumentException("Invalid action: " + action);
         }
-        return new ItemResult(false, opDry, d);
+        String act = action.toLowerCase();
+        MutationQueue.Kind kind = "unfollow".equals(act) ? MutationQueue.Kind.UNFOLLOW : MutationQueue.Kind.FOLLOW;
+        ListEntity le = listRepository.findById(id).orElseThrow(() -> new NoSuchElementException("List not found"));
+        Map<String, Object> params = Map.of("listId", le.getId(), "action", act, "skipProcessed", skipProcessed);
+        return jobService.start(UnfollowJob.Type.LIST_APPLY, params, () -> {
+            List<String> usernames = listItemRepository.findByListId(id).stream().map(ListItemEntity::getUsername).toList();
+            Set<String> processed = skipProcessed ? historyService.processedUsernamesInList(id, act) : Set.of();
+            List<String> pending = usernames.stream().filter(u -> !processed.contains(u)).toList();
+            RelationshipPlanner.Resolution state = planner.resolveFollowing(pending);
+            List<UnfollowJob.Task> tasks = usernames.stream()
+                    .map(u -> processed.contains(u)
+                            ? UnfollowJob.Task.skip(u, kind, id, "already-" + act)
+                            : new UnfollowJob.Task(u, kind, id, state.isFollowing(u)))
+                    .toList();
+            return new UnfollowJobService.Prepared(tasks, null, state.plan().describe());
+        });
     }
 }
@@ -0,0 +1,299 @@
+package me.m41k0n.service;
+
+import me.m41k0n.GitHubURL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila das escritas de follow/unfollow (PUT/DELETE /user/following/{username}), compartilhada por todos os
+ * chamadores: unfollow em massa, jobs, aplicação de listas, refollow de importação e undo.
+ *
+ * As escritas saem em ordem de chegada, no máximo app.github.writes.per-minute por minuto, com um atraso
+ * aleatório de até app.github.writes.jitter-ms entre elas. Quando o GitHub barra por limite secundário
+ * (429, ou 403 com Retry-After / X-RateLimit-Remaining: 0 / mensagem de "secondary rate limit"), toda a fila
+ * pausa pelo Retry-After (ou app.github.writes.secondary-wait-seconds, dobrando a cada barrada seguida) e o
+ * intervalo entre escritas dobra, voltando aos poucos ao configurado a cada escrita aceita. Falhas
+ * transitórias (5xx, erro de rede) são reenviadas com backoff exponencial a partir de app.github.writes.backoff-ms.
+ *
+ * PUT e DELETE em /user/following são idempotentes, então reenviar uma escrita que talvez já tenha sido
+ * aplicada é seguro. Um 404 no DELETE (conta removida ou renomeada) significa que já não seguimos o usuário:
+ * não é erro. Depois de app.github.writes.max-attempts tentativas (ou num erro definitivo, ex.: 404 no PUT)
+ * a escrita vai para a lista de dead letters (uma entrada por ação+usuário, até dead-letter-capacity), de
+ * onde pode ser reenviada.
+ */
+@Component
+public class MutationQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(MutationQueue.class);
+    private static final int MAX_SLOWDOWN = 16;
+    private static final Duration MAX_SECONDARY_WAIT = Duration.ofMinutes(15);
+
+    public enum Kind {
+        FOLLOW("PUT"), UNFOLLOW("DELETE");
+
+        private final String method;
+
+        Kind(String method) {
+            this.method = method;
+        }
+    }
+
+    public record DeadLetter(Kind kind, String username, String sourceListId, int attempts, Integer lastStatus,
+                             String error, Instant failedAt) {
+
+        public Map<String, Object> describe() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("action", kind.name().toLowerCase());
+            m.put("username", username);
+            m.put("sourceListId", sourceListId);
+            m.put("attempts", attempts);
+            m.put("lastStatus", lastStatus);
+            m.put("error", error);
+            m.put("failedAt", failedAt.toString());
+            return m;
+        }
+    }
+
+    private final APIConsume apiConsume;
+    private final long baseIntervalMs;
+    private final long jitterMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final Duration secondaryWait;
+    private final int deadLetterCapacity;
+
+    // guardados por this
+    private long intervalMs;
+    private Instant nextSlot = Instant.EPOCH;
+    private Instant blockedUntil = Instant.EPOCH;
+    private int rateLimitStreak;
+    private final Map<String, DeadLetter> deadLetters = new LinkedHashMap<>();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    public MutationQueue(APIConsume apiConsume,
+                         @Value("${app.github.writes.per-minute:60}") int perMinute,
+                         @Value("${app.github.writes.jitter-ms:500}") long jitterMs,
+                         @Value("${app.github.writes.max-attempts:5}") int maxAttempts,
+                         @Value("${app.github.writes.backoff-ms:2000}") long backoffMs,
+                         @Value("${app.github.writes.secondary-wait-seconds:60}") long secondaryWaitSeconds,
+                         @Value("${app.github.writes.dead-letter-capacity:1000}") int deadLetterCapacity) {
+        this.apiConsume = apiConsume;
+        this.baseIntervalMs = 60_000L / Math.max(1, perMinute);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+        this.secondaryWait = Duration.ofSeconds(Math.max(0, secondaryWaitSeconds));
+        this.deadLetterCapacity = Math.max(1, deadLetterCapacity);
+        this.intervalMs = baseIntervalMs;
+    }
+
+    /**
+     * Enfileira a escrita e bloqueia até ela ser aceita pelo GitHub. Retorna true quando foi aplicada e false
+     * quando o unfollow respondeu 404 (nada a desfazer). Lança RuntimeException quando ela esgota as
+     * tentativas ou falha de forma definitiva; nesse caso já está na lista de dead letters.
+     */
+    public boolean execute(Kind kind, String username, String sourceListId) {
+        String url = GitHubURL.FOLLOWING.getUrl() + "/" + username;
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            awaitSlot();
+            ApiResponse response = null;
+            String error;
+            try {
+                sent.incrementAndGet();
+                response = apiConsume.mutate(kind.method, url);
+                if (response.isSuccessful()) {
+                    onAccepted(kind, username);
+                    return true;
+                }
+                if (kind == Kind.UNFOLLOW && response.statusCode() == 404) {
+                    onAccepted(kind, username);
+                    log.info("[WRITES] unfollow de {} respondeu 404 (conta inexistente): já não segue", username);
+                    return false;
+                }
+                error = "GitHub API " + kind.name().toLowerCase() + " failed with status " + response.statusCode();
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+            }
+
+            Duration wait = retryDelay(response, attempt);
+            if (wait == null || attempt >= maxAttempts) {
+                deadLetter(new DeadLetter(kind, username, sourceListId, attempt,
+                        response != null ? response.statusCode() : null, error, Instant.now()));
+                throw new RuntimeException(error);
+            }
+            retries.incrementAndGet();
+            log.warn("[WRITES] {} de {} falhou (tentativa {}/{}: {}); nova tentativa em {} ms",
+                    kind, username, attempt, maxAttempts, error, wait.toMillis());
+            sleep(wait.toMillis());
+        }
+    }
+
+    public List<DeadLetter> deadLetters() {
+        synchronized (this) {
+            return new ArrayList<>(deadLetters.values());
+        }
+    }
+
+    /**
+     * Remove a dead letter da ação/usuário (ex.: ao reenviar e descobrir que já está no estado pedido).
+     * Escritas aceitas pela fila já removem a sua.
+     */
+    public synchronized void removeDeadLetter(Kind kind, String username) {
+        deadLetters.remove(key(kind, username));
+    }
+
+    public int clearDeadLetters() {
+        synchronized (this) {
+            int n = deadLetters.size();
+            deadLetters.clear();
+            return n;
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        synchronized (this) {
+            m.put("perMinute", 60_000L / Math.max(1, baseIntervalMs));
+            m.put("effectivePerMinute", 60_000L / Math.max(1, intervalMs));
+            m.put("jitterMs", jitterMs);
+            m.put("blockedUntil", blockedUntil.isAfter(Instant.now()) ? blockedUntil.toString() : null);
+            m.put("deadLetters", deadLetters.size());
+        }
+        m.put("queued", waiting.get());
+        m.put("sent", sent.get());
+        m.put("retries", retries.get());
+        m.put("rateLimited", rateLimited.get());
+        return m;
+    }
+
+    // Reserva o próximo horário livre (ordem de chegada) e dorme até ele. Se a fila foi pausada por limite
+    // secundário enquanto esperava, reserva de novo depois da pausa.
+    private void awaitSlot() {
+        waiting.incrementAndGet();
+        try {
+            while (true) {
+                Instant slot;
+                synchronized (this) {
+                    Instant now = Instant.now();
+                    slot = now;
+                    if (nextSlot.isAfter(slot)) slot = nextSlot;
+                    if (blockedUntil.isAfter(slot)) slot = blockedUntil;
+                    long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0;
+                    nextSlot = slot.plusMillis(intervalMs + jitter);
+                }
+                long waitMs = Duration.between(Instant.now(), slot).toMillis();
+                if (waitMs > 0) sleep(waitMs);
+                synchronized (this) {
+                    if (!blockedUntil.isAfter(Instant.now())) return;
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private synchronized void onAccepted(Kind kind, String username) {
+        rateLimitStreak = 0;
+        if (intervalMs > baseIntervalMs) intervalMs = Math.max(baseIntervalMs, intervalMs * 9 / 10);
+        deadLetters.remove(key(kind, username));
+    }
+
+    /**
+     * Quanto esperar antes de reenviar; null quando a falha é definitiva.
+     */
+    private Duration retryDelay(ApiResponse response, int attempt) {
+        if (response == null || response.statusCode() >= 500) {
+            long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0;
+            return Duration.ofMillis(backoffMs * (1L << Math.min(attempt - 1, 10)) + jitter);
+        }
+        if (!isRateLimited(response)) return null;
+        return pauseForRateLimit(response);
+    }
+
+    private static boolean isRateLimited(ApiResponse r) {
+        if (r.statusCode() == 429) return true;
+        if (r.statusCode() != 403) return false;
+        if (r.headers().firstValue("Retry-After").isPresent()) return true;
+        if (r.headers().firstValue("X-RateLimit-Remaining").map(String::trim).filter("0"::equals).isPresent()) return true;
+        return r.body() != null && new String(r.body(), StandardCharsets.UTF_8).toLowerCase().contains("rate limit");
+    }
+
+    // Pausa a fila inteira e dobra o intervalo entre escritas (até MAX_SLOWDOWN vezes o configurado).
+    private synchronized Duration pauseForRateLimit(ApiResponse r) {
+        rateLimited.incrementAndGet();
+        rateLimitStreak++;
+        Instant now = Instant.now();
+        Instant until;
+        Long retryAfter = r.headers().firstValue("Retry-After").map(MutationQueue::parseLongOrNull).orElse(null);
+        Long reset = r.headers().firstValue("X-RateLimit-Reset").map(MutationQueue::parseLongOrNull).orElse(null);
+        boolean exhausted = r.headers().firstValue("X-RateLimit-Remaining").map(String::trim).filter("0"::equals).isPresent();
+        if (retryAfter != null) {
+            until = now.plusSeconds(retryAfter);
+        } else if (exhausted && reset != null && Instant.ofEpochSecond(reset).isAfter(now)) {
+            until = Instant.ofEpochSecond(reset);
+        } else {
+            Duration wait = secondaryWait.multipliedBy(1L << Math.min(rateLimitStreak - 1, 10));
+            until = now.plus(wait.compareTo(MAX_SECONDARY_WAIT) > 0 ? MAX_SECONDARY_WAIT : wait);
+        }
+        if (until.isAfter(blockedUntil)) blockedUntil = until;
+        intervalMs = Math.min(baseIntervalMs * MAX_SLOWDOWN, Math.max(1, intervalMs * 2));
+        log.warn("[WRITES] Limite secundário do GitHub (status={}); fila pausada até {}, ritmo reduzido para {}/min",
+                r.statusCode(), blockedUntil, 60_000L / Math.max(1, intervalMs));
+        return Duration.between(now, blockedUntil);
+    }
+
+    private synchronized void deadLetter(DeadLetter dl) {
+        String key = key(dl.kind(), dl.username());
+        deadLetters.remove(key);
+        deadLetters.put(key, dl);
+        Iterator<String> it = deadLetters.keySet().iterator();
+        while (deadLetters.size() > deadLetterCapacity && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        log.warn("[WRITES] {} de {} movido para dead letters após {} tentativa(s): {}",
+                dl.kind(), dl.username(), dl.attempts(), dl.error());
+    }
+
+    private static String key(Kind kind, String username) {
+        return kind.name() + ":" + username.toLowerCase();
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("A thread foi interrompida aguardando a fila de escritas", e);
+        }
+    }
+
+    private static Long parseLongOrNull(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -12,14 +12,21 @@ public class PreviewReport {
     private final List<User> page;
     private final int pageNumber;
     private final int pageSize;
+    private final GraphSnapshot snapshot;
 
     public PreviewReport(int totalFollowers, int totalFollowing, int totalNonFollowers, List<User> page, int pageNumber, int pageSize) {
+        this(totalFollowers, totalFollowing, totalNonFollowers, page, pageNumber, pageSize, null);
+    }
+
+    public PreviewReport(int totalFollowers, int totalFollowing, int totalNonFollowers, List<User> page, int pageNumber, int pageSize,
+                         GraphSnapshot snapshot) {
         this.totalFollowers = totalFollowers;
         this.totalFollowing = totalFollowing;
         this.totalNonFollowers = totalNonFollowers;
         this.page = page;
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
+        this.snapshot = snapshot;
     }
 
     public int getTotalFollowers() { return totalFollowers; }
@@ -28,4 +35,8 @@ public class PreviewReport {
     public List<User> getPage() { return page; }
     public int getPageNumber() { return pageNumber; }
     public int getPageSize() { return pageSize; }
+    public GraphSnapshot getSnapshot() { return snapshot; }
+    public long getFollowersFetchMs() { return snapshot != null ? snapshot.followersFetchMs() : 0; }
+    public long getFollowingFetchMs() { return snapshot != null ? snapshot.followingFetchMs() : 0; }
+    public long getTotalFetchMs() { return snapshot != null ? snapshot.totalFetchMs() : 0; }
 }
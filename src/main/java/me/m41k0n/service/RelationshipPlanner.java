@@ -0,0 +1,133 @@
+package me.m41k0n.service;
+
+import me.m41k0n.GitHubURL;
+import me.m41k0n.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Decide, por custo estimado em requisições à API, como descobrir quais usuários de um conjunto você já segue.
+ *
+ * - SNAPSHOT: há snapshot válido do grafo; custo zero.
+ * - PER_USER_CHECKS: um {@code GET /user/following/{username}} por usuário (204 = segue, 404 = não segue).
+ * - FULL_SCAN: revalida/relê o snapshot do grafo ({@link FollowGraphSnapshotService#current()}); custo estimado
+ *   pelas páginas de 100 de following (e de followers quando não há snapshot algum), mais a detecção de mudanças.
+ *
+ * Listas pequenas ficam com checagens individuais; listas grandes com a varredura, que ainda deixa o snapshot
+ * pronto para as próximas leituras. O plano escolhido vai na resposta de quem o usa.
+ */
+@Component
+public class RelationshipPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(RelationshipPlanner.class);
+    private static final int PAGE_SIZE = 100;
+    // GET /user + primeira página de cada lista, ver GraphChangeDetector
+    private static final int CHANGE_PROBE_COST = 3;
+
+    public enum Strategy { SNAPSHOT, PER_USER_CHECKS, FULL_SCAN }
+
+    /**
+     * scanCost é -1 quando não foi possível estimar a varredura (totais indisponíveis).
+     */
+    public record Plan(Strategy strategy, int targets, long perUserCost, long scanCost) {
+
+        public Map<String, Object> describe() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("strategy", strategy.name());
+            m.put("targets", targets);
+            Map<String, Object> cost = new LinkedHashMap<>();
+            cost.put("perUserChecks", perUserCost);
+            cost.put("fullScan", scanCost >= 0 ? scanCost : null);
+            m.put("estimatedRequests", cost);
+            return m;
+        }
+    }
+
+    /**
+     * Resultado: o plano usado e, para cada alvo resolvido, se você o segue. Alvos cuja checagem falhou
+     * ficam sem estado ({@link #isFollowing} devolve null).
+     */
+    public record Resolution(Plan plan, Map<String, Boolean> following) {
+
+        public Boolean isFollowing(String username) {
+            return following.get(username);
+        }
+    }
+
+    private final FollowGraphSnapshotService snapshotService;
+    private final GraphChangeDetector detector;
+    private final APIConsume apiConsume;
+
+    public RelationshipPlanner(FollowGraphSnapshotService snapshotService, GraphChangeDetector detector,
+                               APIConsume apiConsume) {
+        this.snapshotService = snapshotService;
+        this.detector = detector;
+        this.apiConsume = apiConsume;
+    }
+
+    public Plan plan(int targets) {
+        if (snapshotService.fresh() != null) {
+            return new Plan(Strategy.SNAPSHOT, targets, targets, 0);
+        }
+        long scanCost = estimateScanCost();
+        Strategy strategy = scanCost < 0 || targets < scanCost ? Strategy.PER_USER_CHECKS : Strategy.FULL_SCAN;
+        return new Plan(strategy, targets, targets, scanCost);
+    }
+
+    public Resolution resolveFollowing(Collection<String> usernames) {
+        Set<String> targets = new LinkedHashSet<>(usernames);
+        Plan plan = plan(targets.size());
+        log.info("[PLANNER] {} alvos: {} (por usuário ~{} req, varredura ~{} req)",
+                targets.size(), plan.strategy(), plan.perUserCost(), plan.scanCost());
+        Map<String, Boolean> state = new HashMap<>();
+        if (targets.isEmpty()) return new Resolution(plan, state);
+
+        if (plan.strategy() == Strategy.PER_USER_CHECKS) {
+            for (String u : targets) {
+                Boolean following = checkFollowing(u);
+                if (following != null) state.put(u, following);
+            }
+        } else {
+            GraphSnapshot s = plan.strategy() == Strategy.SNAPSHOT ? snapshotService.fresh() : null;
+            if (s == null) s = snapshotService.current();
+            Set<String> followingLogins = new HashSet<>();
+            for (User f : s.following()) followingLogins.add(f.login());
+            for (String u : targets) state.put(u, followingLogins.contains(u));
+        }
+        return new Resolution(plan, state);
+    }
+
+    private long estimateScanCost() {
+        GraphSnapshot stale = snapshotService.peek();
+        if (stale != null) {
+            // Com base anterior a detecção relê no máximo o lado de following (o que as escritas mudam).
+            return CHANGE_PROBE_COST + pages(stale.following().size());
+        }
+        try {
+            GraphChangeDetector.Totals totals = detector.totals();
+            return 1 + pages(totals.followers()) + pages(totals.following());
+        } catch (RuntimeException e) {
+            log.warn("[PLANNER] Não foi possível obter os totais ({}); assumindo checagens por usuário", e.getMessage());
+            return -1;
+        }
+    }
+
+    private static long pages(int total) {
+        return Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    private Boolean checkFollowing(String username) {
+        try {
+            int status = apiConsume.getResponse(GitHubURL.FOLLOWING.getUrl() + "/" + username).statusCode();
+            if (status == 204) return true;
+            if (status == 404) return false;
+            log.warn("[PLANNER] Status inesperado {} ao checar follow de {}", status, username);
+        } catch (RuntimeException e) {
+            log.warn("[PLANNER] Falha ao checar follow de {}: {}", username, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -12,20 +13,27 @@ import java.util.*;
 public class UndoService {
 
     private final HistoryService historyService;
-    private final GitHubService gitHubService;
+    private final UnfollowJobService jobService;
+    private final RelationshipPlanner planner;
     private final int defaultMinutes;
 
     public UndoService(HistoryService historyService,
-                       GitHubService gitHubService,
+                       UnfollowJobService jobService,
+                       RelationshipPlanner planner,
                        @Value("${app.undo.defaultMinutes:60}") int defaultMinutes) {
         this.historyService = historyService;
-        this.gitHubService = gitHubService;
+        this.jobService = jobService;
+        this.planner = planner;
         this.defaultMinutes = defaultMinutes;
     }
 
     public Instant resolveUntilInstant(String untilIso) {
         if (untilIso != null && !untilIso.isBlank()) {
-            return Instant.parse(untilIso);
+            try {
+                return Instant.parse(untilIso);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid until (use ISO-8601, ex.: 2025-01-01T00:00:00Z): " + untilIso);
+            }
         }
         return Instant.now().minus(defaultMinutes, ChronoUnit.MINUTES);
     }
@@ -37,24 +45,26 @@ public class UndoService {
         }
     }
 
-    public Result processUndo(Instant since, Set<String> usernamesFilter) {
-        List<HistoryEntity> events = historyService.findUnfollowsSince(since);
-        int refollowed = 0;
-        List<Map<String, Object>> details = new ArrayList<>();
-        boolean dryRun = false;
-        for (HistoryEntity e : events) {
-            String username = e.getUsername();
-            if (usernamesFilter != null && !usernamesFilter.contains(username)) continue;
-            boolean opDry = gitHubService.follow(username, null);
-            dryRun = dryRun || opDry;
-            refollowed++;
-            Map<String, Object> d = new HashMap<>();
-            d.put("username", username);
-            d.put("timestamp", Instant.now().toString());
-            details.add(d);
-        }
-        return new Result(refollowed, details, dryRun);
+    /**
+     * Agenda um job que refaz follow dos unfollows desde {@code since} e o devolve sem esperar as escritas. No
+     * job, o estado atual dos alvos é resolvido pelo {@link RelationshipPlanner} (plano no resumo do job, estado
+     * em details[].wasFollowing). Follows que falham de vez na {@link MutationQueue} contam em failed e não
+     * interrompem os demais.
+     */
+    public UnfollowJob startUndo(Instant since, Set<String> usernamesFilter) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("since", since.toString());
+        if (usernamesFilter != null) params.put("usernames", usernamesFilter.size());
+        return jobService.start(UnfollowJob.Type.UNDO, params, () -> {
+            List<String> targets = new ArrayList<>();
+            for (HistoryEntity e : historyService.findUnfollowsSince(since)) {
+                if (usernamesFilter == null || usernamesFilter.contains(e.getUsername())) targets.add(e.getUsername());
+            }
+            RelationshipPlanner.Resolution state = planner.resolveFollowing(targets);
+            List<UnfollowJob.Task> tasks = targets.stream()
+                    .map(u -> new UnfollowJob.Task(u, MutationQueue.Kind.FOLLOW, null, state.isFollowing(u)))
+                    .toList();
+            return new UnfollowJobService.Prepared(tasks, null, state.plan().describe());
+        });
     }
-
-    public record Result(int refollowed, List<Map<String, Object>> details, boolean dryRun) {}
 }
@@ -0,0 +1,261 @@
+package me.m41k0n.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado e progresso de um job de escritas em massa (follow/unfollow) executado pelo {@link UnfollowJobService}.
+ *
+ * Os contadores são atualizados pelos workers concorrentes; pausa e cancelamento são cooperativos
+ * (verificados antes de cada usuário). {@code dryRun} é fixado na criação e vale para todas as escritas do job.
+ * O resultado de cada usuário fica em {@link #details}; as falhas (que também vão para as dead letters da
+ * {@link MutationQueue}) aparecem no resumo.
+ */
+public class UnfollowJob {
+
+    public enum Status { LOADING, RUNNING, PAUSED, CANCELLED, COMPLETED, FAILED }
+
+    public enum Type { UNFOLLOW_NON_FOLLOWERS, LIST_APPLY, UNDO, IMPORT_REFOLLOW }
+
+    /** Motivo de pulo para usuários na lista de exclusão. */
+    public static final String EXCLUDED = "excluded";
+
+    /** Quantas falhas o resumo do job lista; todas continuam em {@link #details}. */
+    static final int MAX_LISTED_FAILURES = 100;
+
+    /**
+     * Uma escrita do job. {@code wasFollowing} é o estado já resolvido (null quando desconhecido) e
+     * {@code skipReason}, quando presente, faz o usuário ser pulado sem chamar o GitHub.
+     */
+    public record Task(String username, MutationQueue.Kind kind, String sourceListId, Boolean wasFollowing,
+                       String skipReason) {
+
+        public Task(String username, MutationQueue.Kind kind, String sourceListId, Boolean wasFollowing) {
+            this(username, kind, sourceListId, wasFollowing, null);
+        }
+
+        public static Task skip(String username, MutationQueue.Kind kind, String sourceListId, String reason) {
+            return new Task(username, kind, sourceListId, null, reason);
+        }
+
+        String action() {
+            return kind.name().toLowerCase();
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Type type;
+    private final Map<String, Object> params;
+    private final boolean dryRun;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger done = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skippedExcluded = new AtomicInteger();
+    private final AtomicInteger skippedAlreadyInState = new AtomicInteger();
+    private final AtomicInteger skippedProcessed = new AtomicInteger();
+    private final List<Map<String, Object>> details = Collections.synchronizedList(new ArrayList<>());
+    private final List<Map<String, Object>> failures = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile Status status = Status.LOADING;
+    private volatile int total;
+    private volatile Long snapshotVersion;
+    private volatile Map<String, Object> plan;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+
+    private final Object pauseLock = new Object();
+    private boolean paused; // guardado por pauseLock
+
+    UnfollowJob(Type type, Map<String, Object> params, boolean dryRun) {
+        this.type = type;
+        this.params = params == null ? Map.of() : Map.copyOf(params);
+        this.dryRun = dryRun;
+    }
+
+    public String getId() { return id; }
+    public Type getType() { return type; }
+    public Status getStatus() { return status; }
+    public boolean isDryRun() { return dryRun; }
+    public int getDone() { return done.get(); }
+    public int getFailed() { return failed.get(); }
+    public int getSkippedExcluded() { return skippedExcluded.get(); }
+    public int getSkippedAlreadyInState() { return skippedAlreadyInState.get(); }
+    public int getSkippedProcessed() { return skippedProcessed.get(); }
+    public int getTotal() { return total; }
+
+    public boolean isFinished() {
+        return status == Status.CANCELLED || status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // ===== transições (usadas pelo UnfollowJobService) =====
+    void start(int total, Long snapshotVersion, Map<String, Object> plan) {
+        this.total = total;
+        this.snapshotVersion = snapshotVersion;
+        this.plan = plan;
+        this.startedAt = Instant.now();
+        synchronized (pauseLock) {
+            if (status == Status.LOADING) status = paused ? Status.PAUSED : Status.RUNNING;
+        }
+    }
+
+    void finish(Status finalStatus, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = finalStatus;
+    }
+
+    void markDone(Task task, boolean opDryRun) {
+        done.incrementAndGet();
+        details.add(detail(task, opDryRun ? "dry-run" : "applied"));
+    }
+
+    void markFailed(Task task, String error) {
+        failed.incrementAndGet();
+        Map<String, Object> d = detail(task, "failed");
+        d.put("error", error);
+        details.add(d);
+        synchronized (failures) {
+            if (failures.size() < MAX_LISTED_FAILURES) {
+                failures.add(Map.of("username", task.username(), "action", task.action(), "error", String.valueOf(error)));
+            }
+        }
+    }
+
+    /**
+     * Exclusão e "já no estado" têm contadores próprios; os demais motivos (ex.: já processado segundo o
+     * histórico) contam em skippedProcessed.
+     */
+    void markSkipped(Task task, String reason) {
+        if (EXCLUDED.equals(reason)) skippedExcluded.incrementAndGet();
+        else if (GitHubService.ALREADY_IN_STATE.equals(reason)) skippedAlreadyInState.incrementAndGet();
+        else skippedProcessed.incrementAndGet();
+        Map<String, Object> d = detail(task, "skipped");
+        d.put("skippedReason", reason);
+        details.add(d);
+    }
+
+    private static Map<String, Object> detail(Task task, String status) {
+        Map<String, Object> d = new LinkedHashMap<>();
+        d.put("username", task.username());
+        d.put("action", task.action());
+        d.put("status", status);
+        if (task.wasFollowing() != null) d.put("wasFollowing", task.wasFollowing());
+        d.put("timestamp", Instant.now().toString());
+        return d;
+    }
+
+    /**
+     * Resultados por usuário, na ordem em que foram processados: { username, action, status
+     * (applied|dry-run|skipped|failed), wasFollowing?, skippedReason?, error?, timestamp }.
+     */
+    public List<Map<String, Object>> details(int offset, int limit) {
+        synchronized (details) {
+            int from = Math.min(Math.max(0, offset), details.size());
+            int to = Math.min(details.size(), from + Math.max(0, limit));
+            return new ArrayList<>(details.subList(from, to));
+        }
+    }
+
+    public int detailCount() {
+        return details.size();
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Os workers checam antes de cada usuário: pausado ou cancelado, o worker encerra e devolve a thread.
+     */
+    boolean isRunnable() {
+        synchronized (pauseLock) {
+            return !paused && !cancelRequested;
+        }
+    }
+
+    // ===== controle =====
+    public boolean pause() {
+        synchronized (pauseLock) {
+            if (isFinished()) return false;
+            paused = true;
+            if (status == Status.RUNNING) status = Status.PAUSED;
+            return true;
+        }
+    }
+
+    public boolean resume() {
+        synchronized (pauseLock) {
+            if (isFinished()) return false;
+            paused = false;
+            if (status == Status.PAUSED) status = Status.RUNNING;
+            return true;
+        }
+    }
+
+    public boolean cancel() {
+        synchronized (pauseLock) {
+            if (isFinished()) return false;
+            cancelRequested = true;
+            return true;
+        }
+    }
+
+    /**
+     * Resumo para a API: contadores, vazão (usuários/s desde o início) e ETA estimado.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", id);
+        m.put("type", type.name());
+        m.put("status", status.name());
+        m.put("dryRun", dryRun);
+        m.put("params", params);
+        m.put("snapshotId", snapshotVersion);
+        m.put("plan", plan);
+        m.put("total", total);
+        int processed = done.get() + failed.get() + skippedExcluded.get() + skippedAlreadyInState.get()
+                + skippedProcessed.get();
+        m.put("processed", processed);
+        m.put("done", done.get());
+        m.put("failed", failed.get());
+        m.put("skippedExcluded", skippedExcluded.get());
+        m.put("skippedAlreadyInState", skippedAlreadyInState.get());
+        m.put("skippedProcessed", skippedProcessed.get());
+        synchronized (failures) {
+            m.put("failures", new ArrayList<>(failures));
+        }
+        m.put("createdAt", createdAt.toString());
+        m.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        m.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+
+        Double throughput = null;
+        Long etaSeconds = null;
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double elapsed = Math.max(1, Duration.between(startedAt, end).toMillis()) / 1000.0;
+            throughput = Math.round(processed / elapsed * 100) / 100.0;
+            if (!isFinished() && processed > 0) {
+                etaSeconds = Math.round((total - processed) / (processed / elapsed));
+            }
+        }
+        m.put("throughputPerSecond", throughput);
+        m.put("etaSeconds", etaSeconds);
+        if (error != null) m.put("error", error);
+        return m;
+    }
+
+    /**
+     * Corpo da resposta 202 dos endpoints que agendam o job: o resumo mais jobId e onde acompanhá-lo.
+     */
+    public Map<String, Object> describeAccepted() {
+        Map<String, Object> m = describe();
+        m.put("jobId", id);
+        m.put("statusUrl", "/api/jobs/" + id);
+        m.put("detailsUrl", "/api/jobs/" + id + "/details");
+        return m;
+    }
+}
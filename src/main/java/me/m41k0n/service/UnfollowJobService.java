@@ -0,0 +1,261 @@
+package me.m41k0n.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executa escritas em massa (unfollow dos não-seguidores, aplicação de listas, undo, refollow importado)
+ * como jobs assíncronos.
+ *
+ * O job é criado e devolvido imediatamente; a preparação (snapshot, histórico, plano de checagens) e as
+ * escritas rodam no executor "unfollowJobExecutor", com até app.jobs.unfollow.per-job workers por job. O ritmo
+ * real das escritas é controlado pela {@link MutationQueue}. Apenas os últimos app.jobs.retain jobs
+ * finalizados são mantidos em memória.
+ *
+ * Pausar não prende threads do pool: os workers do job encerram antes do próximo usuário e
+ * {@link #resume} agenda novos workers a partir de onde pararam.
+ */
+@Service
+public class UnfollowJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnfollowJobService.class);
+
+    private final GitHubService gitHubService;
+    private final FollowGraphSnapshotService snapshotService;
+    private final ExclusionService exclusionService;
+    private final EmailService emailService;
+    private final ExecutorService executor;
+    private final int perJobConcurrency;
+    private final int retain;
+    private final Map<String, UnfollowJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final Deque<String> order = new ArrayDeque<>(); // guardado por this
+
+    public UnfollowJobService(GitHubService gitHubService, FollowGraphSnapshotService snapshotService,
+                              ExclusionService exclusionService, EmailService emailService,
+                              @Qualifier("unfollowJobExecutor") ExecutorService executor,
+                              @Value("${app.jobs.unfollow.per-job:2}") int perJobConcurrency,
+                              @Value("${app.jobs.retain:50}") int retain) {
+        this.gitHubService = gitHubService;
+        this.snapshotService = snapshotService;
+        this.exclusionService = exclusionService;
+        this.emailService = emailService;
+        this.executor = executor;
+        this.perJobConcurrency = Math.max(1, perJobConcurrency);
+        this.retain = Math.max(1, retain);
+    }
+
+    /**
+     * Tarefas de um job, resolvidas já no executor: {@code snapshotVersion} e {@code plan} (o
+     * {@link RelationshipPlanner.Plan} descrito) são opcionais e só aparecem no resumo.
+     */
+    public record Prepared(List<UnfollowJob.Task> tasks, Long snapshotVersion, Map<String, Object> plan) {}
+
+    /**
+     * Cria e agenda o job de unfollow dos não-seguidores do snapshot vigente. Não bloqueia.
+     */
+    public UnfollowJob startUnfollowNonFollowers() {
+        return start(UnfollowJob.Type.UNFOLLOW_NON_FOLLOWERS, Map.of(), () -> {
+            GraphSnapshot snapshot = snapshotService.current();
+            Set<String> excluded = exclusionService.allUsernames();
+            List<UnfollowJob.Task> tasks = snapshot.diff().nonFollowers().stream()
+                    .map(u -> excluded.contains(u.login())
+                            ? UnfollowJob.Task.skip(u.login(), MutationQueue.Kind.UNFOLLOW, null, UnfollowJob.EXCLUDED)
+                            : new UnfollowJob.Task(u.login(), MutationQueue.Kind.UNFOLLOW, null, null))
+                    .toList();
+            return new Prepared(tasks, snapshot.version(), null);
+        });
+    }
+
+    /**
+     * Cria e agenda um job genérico. {@code prepare} roda no executor (o job fica em LOADING até ele
+     * terminar) e uma exceção nele finaliza o job como FAILED. Não bloqueia.
+     */
+    public UnfollowJob start(UnfollowJob.Type type, Map<String, Object> params, Supplier<Prepared> prepare) {
+        UnfollowJob job = new UnfollowJob(type, params, gitHubService.isDryRunEnabled());
+        register(job);
+        CompletableFuture.supplyAsync(() -> prepare(job, prepare), executor)
+                .whenComplete((tasks, ex) -> {
+                    if (ex != null || tasks == null) {
+                        complete(job, ex);
+                    } else {
+                        Run run = new Run(job, tasks);
+                        runs.put(job.getId(), run);
+                        run.startWorkers();
+                    }
+                });
+        return job;
+    }
+
+    public boolean pause(UnfollowJob job) {
+        return job.pause();
+    }
+
+    /**
+     * Retoma o job e agenda workers para os usuários restantes.
+     */
+    public boolean resume(UnfollowJob job) {
+        if (!job.resume()) return false;
+        Run run = runs.get(job.getId());
+        if (run != null) run.startWorkers();
+        return true;
+    }
+
+    /**
+     * Cancela o job. Se estava pausado (sem workers ativos), finaliza na hora.
+     */
+    public boolean cancel(UnfollowJob job) {
+        if (!job.cancel()) return false;
+        Run run = runs.get(job.getId());
+        if (run != null) run.finishIfIdle();
+        return true;
+    }
+
+    public Optional<UnfollowJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<UnfollowJob> list() {
+        synchronized (this) {
+            List<UnfollowJob> all = new ArrayList<>();
+            for (Iterator<String> it = order.descendingIterator(); it.hasNext(); ) {
+                UnfollowJob j = jobs.get(it.next());
+                if (j != null) all.add(j);
+            }
+            return all;
+        }
+    }
+
+    private List<UnfollowJob.Task> prepare(UnfollowJob job, Supplier<Prepared> prepare) {
+        Prepared prepared = prepare.get();
+        List<UnfollowJob.Task> tasks = prepared.tasks();
+        job.start(tasks.size(), prepared.snapshotVersion(), prepared.plan());
+        log.info("[JOB] {} ({}) iniciado. candidatos={} dryRun={} snapshot=v{}", job.getId(), job.getType(),
+                tasks.size(), job.isDryRun(), prepared.snapshotVersion());
+        return job.isCancelRequested() ? null : tasks;
+    }
+
+    /**
+     * Execução de um job: os workers consomem {@code tasks} a partir de {@code next}. O último worker a
+     * sair finaliza o job, a menos que ele só esteja pausado (aí o {@link #resume} agenda novos workers).
+     */
+    private final class Run {
+        private final UnfollowJob job;
+        private final List<UnfollowJob.Task> tasks;
+        private final AtomicInteger next = new AtomicInteger();
+        private int active; // guardado por this
+        private boolean completed; // guardado por this
+
+        Run(UnfollowJob job, List<UnfollowJob.Task> tasks) {
+            this.job = job;
+            this.tasks = tasks;
+        }
+
+        synchronized void startWorkers() {
+            if (completed) return;
+            int remaining = tasks.size() - Math.min(next.get(), tasks.size());
+            int wanted = job.isRunnable() ? Math.min(perJobConcurrency, remaining) : 0;
+            for (; active < wanted; active++) {
+                executor.execute(this::work);
+            }
+            finishIfIdle();
+        }
+
+        synchronized void finishIfIdle() {
+            if (completed || active > 0) return;
+            if (job.isCancelRequested() || next.get() >= tasks.size()) {
+                completed = true;
+                runs.remove(job.getId());
+                complete(job, null);
+            }
+        }
+
+        private void work() {
+            try {
+                int i;
+                while (job.isRunnable() && (i = next.getAndIncrement()) < tasks.size()) {
+                    process(tasks.get(i));
+                }
+            } finally {
+                synchronized (this) {
+                    active--;
+                    // resume durante a saída deste worker: repõe a concorrência
+                    if (job.isRunnable()) startWorkers(); else finishIfIdle();
+                }
+            }
+        }
+
+        private void process(UnfollowJob.Task task) {
+            String login = task.username();
+            if (task.skipReason() != null) {
+                job.markSkipped(task, task.skipReason());
+                log.info("[JOB] Pulando {} ({})", login, task.skipReason());
+                return;
+            }
+            try {
+                GitHubService.Outcome outcome = task.kind() == MutationQueue.Kind.UNFOLLOW
+                        ? gitHubService.unfollow(login, task.sourceListId(), task.wasFollowing(), job.isDryRun())
+                        : gitHubService.follow(login, task.sourceListId(), task.wasFollowing(), job.isDryRun());
+                if (outcome.isSkipped()) {
+                    job.markSkipped(task, GitHubService.ALREADY_IN_STATE);
+                    return;
+                }
+                job.markDone(task, outcome.isDryRun());
+                log.info("[JOB] {} {} {}", outcome.isDryRun() ? "(dry-run) would" : "applied", task.action(), login);
+            } catch (RuntimeException ex) {
+                job.markFailed(task, ex.getMessage());
+                log.warn("[JOB] Falha em {} de {}: {}", task.action(), login, ex.getMessage());
+            }
+        }
+    }
+
+    private void complete(UnfollowJob job, Throwable ex) {
+        if (ex != null) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            job.finish(UnfollowJob.Status.FAILED, cause.getMessage());
+            log.warn("[JOB] {} falhou: {}", job.getId(), cause.getMessage());
+        } else {
+            job.finish(job.isCancelRequested() ? UnfollowJob.Status.CANCELLED : UnfollowJob.Status.COMPLETED, null);
+            log.info("[JOB] {} ({}) finalizado ({}). executados={} falhas={} ignoradosPorExclusao={}", job.getId(),
+                    job.getType(), job.getStatus(), job.getDone(), job.getFailed(), job.getSkippedExcluded());
+            if (job.getType() == UnfollowJob.Type.UNFOLLOW_NON_FOLLOWERS) sendSummary(job);
+        }
+        evictOldFinished();
+    }
+
+    private void sendSummary(UnfollowJob job) {
+        try {
+            emailService.sendUnfollowSummary(job.getTotal(), job.isDryRun() ? 0 : job.getDone(),
+                    job.getSkippedExcluded(), job.isDryRun());
+        } catch (Exception mailEx) {
+            log.debug("[MAIL] Falha ao enviar resumo do job {}: {}", job.getId(), mailEx.getMessage());
+        }
+    }
+
+    private synchronized void register(UnfollowJob job) {
+        jobs.put(job.getId(), job);
+        order.addLast(job.getId());
+    }
+
+    private synchronized void evictOldFinished() {
+        Iterator<String> it = order.iterator();
+        while (order.size() > retain && it.hasNext()) {
+            String id = it.next();
+            UnfollowJob j = jobs.get(id);
+            if (j == null || j.isFinished()) {
+                it.remove();
+                jobs.remove(id);
+            }
+        }
+    }
+}
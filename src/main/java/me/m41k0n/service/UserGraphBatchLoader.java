@@ -0,0 +1,241 @@
+package me.m41k0n.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Busca todas as métricas de enriquecimento (followers, repositórios, linguagens, relação de follow,
+ * última atividade e contribuições) de vários usuários por requisição GraphQL, usando aliases
+ * ({@code u0: user(login:$l0){...} u1: user(login:$l1){...}}).
+ *
+ * Os logins são agrupados em lotes limitados por app.github.graphql.batch-size e pelo custo estimado em
+ * pontos (app.github.graphql.batch-max-cost); os lotes rodam no "enrichmentExecutor", até
+ * app.github.enrichment.per-run por execução. Dados parciais são aproveitados: erros com {@code path}
+ * apontando para um alias são associados apenas ao login correspondente.
+ *
+ * Atividade e contribuições vêm do contributionCalendar dos últimos {@value #ACTIVITY_WINDOW_DAYS} dias,
+ * a mesma janela coberta pela API de eventos públicos.
+ */
+@Component
+public class UserGraphBatchLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(UserGraphBatchLoader.class);
+
+    // Cada usuário abre duas conexões (followers e repositories) — base do cálculo de pontos do GitHub
+    static final int CONNECTIONS_PER_USER = 2;
+    static final int ACTIVITY_WINDOW_DAYS = 90;
+
+    /**
+     * Grupos de campos que podem ser pedidos separadamente (cada um com seu TTL no {@link EnrichmentCache}).
+     * REPOSITORIES e LANGUAGES vêm da mesma conexão de repositórios.
+     */
+    public enum Field { FOLLOWERS, REPOSITORIES, LANGUAGES, RELATIONSHIP, ACTIVITY }
+
+    private static final String FOLLOWERS_FIELDS = "  followers{ totalCount }\n";
+    private static final String REPOSITORY_FIELDS = """
+              repositories(privacy: PUBLIC, first: 10, orderBy:{field:PUSHED_AT, direction:DESC}){
+                totalCount
+                nodes{ pushedAt updatedAt primaryLanguage{ name } }
+              }
+            """;
+    private static final String RELATIONSHIP_FIELDS = "  isFollowingViewer\n  viewerIsFollowing\n";
+    private static final String ACTIVITY_FIELDS = """
+              contributionsCollection(from: $from){
+                contributionCalendar{ totalContributions weeks{ contributionDays{ date contributionCount } } }
+              }
+            """;
+
+    private final GitHubGraphQLClient graphQLClient;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final int perRunConcurrency;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public UserGraphBatchLoader(GitHubGraphQLClient graphQLClient,
+                                @Value("${app.github.graphql.batch-size:50}") int batchSize,
+                                @Value("${app.github.graphql.batch-max-cost:1}") int maxCost,
+                                @Qualifier("enrichmentExecutor") ExecutorService executor,
+                                @Value("${app.github.enrichment.per-run:4}") int perRunConcurrency) {
+        this.graphQLClient = graphQLClient;
+        this.batchSize = Math.max(1, Math.min(batchSize, maxUsersForCost(maxCost)));
+        this.executor = executor;
+        this.perRunConcurrency = Math.max(1, perRunConcurrency);
+    }
+
+    public record GraphInfo(Instant lastPushAt, int followersCount, int reposCount, Set<String> languages,
+                            boolean isFollowingViewer, boolean viewerIsFollowing,
+                            Instant lastActivity, int contributions) {}
+
+    /**
+     * Resultado por login: {@code infos} com os usuários resolvidos e {@code errors} com a mensagem de
+     * falha dos demais (erro do alias, usuário inexistente ou falha do lote inteiro).
+     */
+    public record Batch(Map<String, GraphInfo> infos, Map<String, String> errors) {}
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public Batch load(List<String> logins) {
+        return load(logins, EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Busca apenas os grupos de campos informados; os demais campos de {@link GraphInfo} ficam com valores padrão.
+     */
+    public Batch load(List<String> logins, Set<Field> fields) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < logins.size(); from += batchSize) {
+            chunks.add(logins.subList(from, Math.min(logins.size(), from + batchSize)));
+        }
+        String fromDate = Instant.now().minus(ACTIVITY_WINDOW_DAYS, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS).toString();
+
+        Map<String, GraphInfo> infos = new HashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        // Lotes em janelas de perRunConcurrency para não ocupar o executor compartilhado inteiro
+        for (int w = 0; w < chunks.size(); w += perRunConcurrency) {
+            List<List<String>> window = chunks.subList(w, Math.min(chunks.size(), w + perRunConcurrency));
+            List<Future<Batch>> futures = new ArrayList<>(window.size());
+            for (List<String> chunk : window) {
+                futures.add(executor.submit(() -> loadChunk(chunk, fields, fromDate)));
+            }
+            try {
+                for (Future<Batch> f : futures) {
+                    Batch b = f.get();
+                    infos.putAll(b.infos());
+                    errors.putAll(b.errors());
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("A thread foi interrompida durante o enriquecimento dos usuários", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new RuntimeException("Falha ao enriquecer usuários", e.getCause());
+            }
+        }
+        return new Batch(infos, errors);
+    }
+
+    private Batch loadChunk(List<String> chunk, Set<Field> fields, String fromDate) {
+        Map<String, GraphInfo> infos = new HashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        try {
+            JsonNode resp = graphQLClient.execute(buildQuery(chunk, fields, fromDate));
+            readBatch(chunk, resp, infos, errors);
+        } catch (RuntimeException ex) {
+            log.debug("[FILTER] Lote GraphQL de {} usuários falhou: {}", chunk.size(), ex.getMessage());
+            for (String login : chunk) errors.put(login, ex.getMessage());
+        }
+        return new Batch(infos, errors);
+    }
+
+    String buildQuery(List<String> logins, Set<Field> fields, String fromDate) {
+        boolean activity = fields.contains(Field.ACTIVITY);
+        StringBuilder vars = new StringBuilder(activity ? "$from:DateTime!" : "");
+        StringBuilder body = new StringBuilder();
+        ObjectNode variables = mapper.createObjectNode();
+        if (activity) variables.put("from", fromDate);
+        for (int i = 0; i < logins.size(); i++) {
+            if (!vars.isEmpty()) vars.append(',');
+            vars.append("$l").append(i).append(":String!");
+            body.append("  u").append(i).append(": user(login:$l").append(i).append("){ ...UserFields }\n");
+            variables.put("l" + i, logins.get(i));
+        }
+        String query = "query(" + vars + ") {\n" + body + "  rateLimit{ cost remaining resetAt }\n}\n" + fragment(fields);
+        ObjectNode root = mapper.createObjectNode();
+        root.put("query", query);
+        root.set("variables", variables);
+        return root.toString();
+    }
+
+    private static String fragment(Set<Field> fields) {
+        StringBuilder f = new StringBuilder("fragment UserFields on User {\n  login\n");
+        if (fields.contains(Field.FOLLOWERS)) f.append(FOLLOWERS_FIELDS);
+        if (fields.contains(Field.REPOSITORIES) || fields.contains(Field.LANGUAGES)) f.append(REPOSITORY_FIELDS);
+        if (fields.contains(Field.RELATIONSHIP)) f.append(RELATIONSHIP_FIELDS);
+        if (fields.contains(Field.ACTIVITY)) f.append(ACTIVITY_FIELDS);
+        return f.append("}\n").toString();
+    }
+
+    private void readBatch(List<String> chunk, JsonNode resp, Map<String, GraphInfo> infos, Map<String, String> errors) {
+        Map<String, String> aliasErrors = new HashMap<>();
+        for (JsonNode err : resp.path("errors")) {
+            JsonNode path = err.path("path");
+            if (path.isArray() && !path.isEmpty()) {
+                aliasErrors.putIfAbsent(path.get(0).asText(), err.path("message").asText("erro GraphQL"));
+            }
+        }
+        JsonNode data = resp.path("data");
+        for (int i = 0; i < chunk.size(); i++) {
+            String login = chunk.get(i);
+            String alias = "u" + i;
+            JsonNode user = data.path(alias);
+            if (aliasErrors.containsKey(alias)) {
+                errors.put(login, aliasErrors.get(alias));
+            } else if (!user.isObject()) {
+                errors.put(login, resp.has("errors") ? resp.path("errors").path(0).path("message").asText("erro GraphQL")
+                        : "usuário não encontrado");
+            } else {
+                infos.put(login, parseUser(user));
+            }
+        }
+    }
+
+    private GraphInfo parseUser(JsonNode root) {
+        int followers = root.path("followers").path("totalCount").asInt(0);
+        JsonNode repos = root.path("repositories");
+        int reposCount = repos.path("totalCount").asInt(0);
+        Instant lastPush = null;
+        Set<String> langs = new LinkedHashSet<>();
+        for (JsonNode n : repos.path("nodes")) {
+            String pushedAt = n.path("pushedAt").asText(null);
+            if (pushedAt != null) {
+                Instant pi = Instant.parse(pushedAt);
+                if (lastPush == null || pi.isAfter(lastPush)) lastPush = pi;
+            }
+            String lang = n.path("primaryLanguage").path("name").asText(null);
+            if (lang != null && !lang.isBlank()) langs.add(lang);
+        }
+        boolean isFollowingViewer = root.path("isFollowingViewer").asBoolean(false);
+        boolean viewerIsFollowing = root.path("viewerIsFollowing").asBoolean(false);
+
+        JsonNode calendar = root.path("contributionsCollection").path("contributionCalendar");
+        int contributions = calendar.path("totalContributions").asInt(0);
+        LocalDate lastDay = null;
+        for (JsonNode week : calendar.path("weeks")) {
+            for (JsonNode day : week.path("contributionDays")) {
+                if (day.path("contributionCount").asInt(0) <= 0) continue;
+                LocalDate d = LocalDate.parse(day.path("date").asText());
+                if (lastDay == null || d.isAfter(lastDay)) lastDay = d;
+            }
+        }
+        Instant lastActivity = lastDay != null ? lastDay.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+        return new GraphInfo(lastPush, followers, reposCount, langs, isFollowingViewer, viewerIsFollowing,
+                lastActivity, contributions);
+    }
+
+    /**
+     * O GitHub cobra ~1 ponto a cada 100 requisições de conexão (arredondado, mínimo 1). Devolve quantos
+     * usuários cabem em um lote sem ultrapassar {@code maxCost} pontos.
+     */
+    static int maxUsersForCost(int maxCost) {
+        int budget = Math.max(1, maxCost) * 100 + 49; // arredondamento para o inteiro mais próximo
+        return Math.max(1, (budget - 1) / CONNECTIONS_PER_USER);
+    }
+}
@@ -0,0 +1,56 @@
+package me.m41k0n.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import me.m41k0n.model.User;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte uma página da API (/user/followers, /user/following) em {@link User}.
+ *
+ * Lê o corpo de forma incremental com {@link JsonParser}, extraindo apenas login e html_url e pulando
+ * os demais campos (~30 por usuário), sem montar String do corpo, árvore JSON ou objetos intermediários.
+ */
+@Component
+public class UserPageParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    public List<User> parse(byte[] body) {
+        try (JsonParser p = FACTORY.createParser(body)) {
+            return readUsers(p);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao processar resposta da API do GitHub", e);
+        }
+    }
+
+    private List<User> readUsers(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_ARRAY) {
+            // ex.: {"message":"Bad credentials"} — a API devolveu um objeto de erro ao invés da página
+            throw new IOException("Resposta inesperada da API do GitHub (esperado array de usuários)");
+        }
+        List<User> users = new ArrayList<>(100);
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            String login = null;
+            String htmlUrl = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("login".equals(field)) {
+                    login = p.getValueAsString();
+                } else if ("html_url".equals(field)) {
+                    htmlUrl = p.getValueAsString();
+                } else if (value.isStructStart()) {
+                    p.skipChildren();
+                }
+            }
+            users.add(new User(login, htmlUrl));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS http_cache (
+  url TEXT PRIMARY KEY,
+  etag TEXT NULL,
+  last_modified TEXT NULL,
+  link TEXT NULL,
+  body BLOB NOT NULL,
+  stored_at TEXT NOT NULL
+);
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS enrichment_cache (
+  login TEXT PRIMARY KEY,
+  followers_count INTEGER NULL,
+  followers_at TEXT NULL,
+  repos_count INTEGER NULL,
+  last_push_at TEXT NULL,
+  repos_at TEXT NULL,
+  languages TEXT NULL,
+  languages_at TEXT NULL,
+  is_following_viewer INTEGER NULL,
+  viewer_is_following INTEGER NULL,
+  relationship_at TEXT NULL,
+  last_activity TEXT NULL,
+  contributions INTEGER NULL,
+  activity_at TEXT NULL
+);
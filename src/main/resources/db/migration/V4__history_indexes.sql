@@ -0,0 +1,5 @@
+-- alreadyProcessed / skipProcessed: existsByUsernameAndActionAndDryRun e buscas por usuário
+CREATE INDEX IF NOT EXISTS idx_history_username_action_dry_run ON history (username, action, dry_run);
+
+-- undo (unfollows reais desde X) e buscas por ação/período
+CREATE INDEX IF NOT EXISTS idx_history_action_dry_run_timestamp ON history (action, dry_run, timestamp);
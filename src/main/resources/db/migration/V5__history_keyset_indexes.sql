@@ -0,0 +1,6 @@
+-- paginação por cursor (keyset) em GET /api/history: ordem (timestamp, id) com ou sem filtro de ação.
+-- O índice por ação ganha id no fim e substitui o da V4 (continua servindo o undo).
+CREATE INDEX IF NOT EXISTS idx_history_action_dry_run_timestamp_id ON history (action, dry_run, timestamp, id);
+DROP INDEX IF EXISTS idx_history_action_dry_run_timestamp;
+
+CREATE INDEX IF NOT EXISTS idx_history_dry_run_timestamp_id ON history (dry_run, timestamp, id);
@@ -0,0 +1,34 @@
+package me.m41k0n.bench;
+
+/**
+ * Dados sintéticos no formato das respostas da API do GitHub, para os benchmarks.
+ */
+final class BenchData {
+
+    private BenchData() {}
+
+    static String userPageJson(int users) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < users; i++) {
+            if (i > 0) sb.append(',');
+            String login = "user" + i;
+            sb.append("{\"login\":\"").append(login).append("\",\"id\":").append(1000 + i)
+              .append(",\"node_id\":\"MDQ6VXNlcj").append(i).append("\"")
+              .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(1000 + i).append("?v=4\"")
+              .append(",\"gravatar_id\":\"\"")
+              .append(",\"url\":\"https://api.github.com/users/").append(login).append("\"")
+              .append(",\"html_url\":\"https://github.com/").append(login).append("\"")
+              .append(",\"followers_url\":\"https://api.github.com/users/").append(login).append("/followers\"")
+              .append(",\"following_url\":\"https://api.github.com/users/").append(login).append("/following{/other_user}\"")
+              .append(",\"gists_url\":\"https://api.github.com/users/").append(login).append("/gists{/gist_id}\"")
+              .append(",\"starred_url\":\"https://api.github.com/users/").append(login).append("/starred{/owner}{/repo}\"")
+              .append(",\"subscriptions_url\":\"https://api.github.com/users/").append(login).append("/subscriptions\"")
+              .append(",\"organizations_url\":\"https://api.github.com/users/").append(login).append("/orgs\"")
+              .append(",\"repos_url\":\"https://api.github.com/users/").append(login).append("/repos\"")
+              .append(",\"events_url\":\"https://api.github.com/users/").append(login).append("/events{/privacy}\"")
+              .append(",\"received_events_url\":\"https://api.github.com/users/").append(login).append("/received_events\"")
+              .append(",\"type\":\"User\",\"site_admin\":false}");
+        }
+        return sb.append(']').toString();
+    }
+}
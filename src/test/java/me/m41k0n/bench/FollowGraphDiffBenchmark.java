@@ -0,0 +1,55 @@
+package me.m41k0n.bench;
+
+import me.m41k0n.model.User;
+import me.m41k0n.service.FollowGraphDiff;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diferença following − followers: List.removeAll (caminho antigo, O(n·m)) vs {@link FollowGraphDiff} (hash, O(n+m)).
+ * Cenário: metade do following te segue de volta, e os followers têm o mesmo tamanho do following.
+ *
+ * O caminho antigo com 100k leva vários segundos por operação; para comparar rápido use {@code -p size=1000,10000}.
+ * Executar como descrito em {@link UserPageParserBenchmark}, trocando o nome do benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class FollowGraphDiffBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<User> followers;
+    private List<User> following;
+
+    @Setup
+    public void setup() {
+        following = new ArrayList<>(size);
+        followers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            following.add(new User("user" + i, "https://github.com/user" + i));
+            // pares te seguem de volta; o restante dos followers são contas que você não segue
+            String f = (i % 2 == 0) ? "user" + i : "fan" + i;
+            followers.add(new User(f, "https://github.com/" + f));
+        }
+    }
+
+    @Benchmark
+    public List<User> legacyRemoveAll() {
+        List<User> nonFollowers = new ArrayList<>(following);
+        nonFollowers.removeAll(followers);
+        return nonFollowers;
+    }
+
+    @Benchmark
+    public FollowGraphDiff.Result hashDiff() {
+        return FollowGraphDiff.compute(followers, following);
+    }
+}
@@ -0,0 +1,84 @@
+package me.m41k0n.bench;
+
+import me.m41k0n.service.HistoryRecorder;
+import org.openjdk.jmh.annotations.*;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação de {@code rows} linhas de histórico num SQLite em disco: uma transação por linha (equivalente ao
+ * antigo {@code historyRepository.save} por ação) vs {@link HistoryRecorder} write-behind (lotes JDBC numa
+ * transação, esvaziados com flush() ao final da operação).
+ *
+ * Executar como descrito em {@link UserPageParserBenchmark}, trocando o nome do benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class HistoryInsertBenchmark {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO history (id, username, action, timestamp, source_list_id, dry_run) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Param({"1000"})
+    public int rows;
+
+    private Path dir;
+    private SQLiteDataSource dataSource;
+    private HistoryRecorder recorder;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("history-bench");
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("bench.db"));
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE history (id TEXT PRIMARY KEY, username TEXT NOT NULL, action TEXT NOT NULL, "
+                    + "timestamp TEXT NOT NULL, source_list_id TEXT NULL, dry_run INTEGER NOT NULL DEFAULT 0)");
+        }
+        recorder = new HistoryRecorder(dataSource, true, 200, 50, 10_000);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        recorder.shutdown();
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void transactionPerRow() throws Exception {
+        try (Connection c = dataSource.getConnection(); PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < rows; i++) {
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, "user" + i);
+                ps.setString(3, "unfollow");
+                ps.setString(4, Instant.now().toString());
+                ps.setString(5, null);
+                ps.setInt(6, 0);
+                ps.executeUpdate(); // autocommit: um commit (fsync) por linha
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeBehindRecorder() {
+        for (int i = 0; i < rows; i++) {
+            recorder.record("user" + i, "unfollow", false, null);
+        }
+        recorder.flush();
+    }
+}
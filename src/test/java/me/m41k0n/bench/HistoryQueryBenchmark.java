@@ -0,0 +1,158 @@
+package me.m41k0n.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de histórico sobre {@code rows} linhas (1M por padrão), sem e com os índices de V4__history_indexes.sql:
+ * <ul>
+ *   <li>exists: {@code existsByUsernameAndActionAndDryRun} (skipProcessed);</li>
+ *   <li>legacySearch: predicados {@code (? is null or col = ?)} da antiga @Query;</li>
+ *   <li>dynamicSearch: apenas os predicados ativos, como em HistoryRepositoryImpl.</li>
+ * </ul>
+ * O setup imprime o EXPLAIN QUERY PLAN de cada consulta. Popular 1M linhas leva alguns segundos por valor de indexed.
+ *
+ * Executar como descrito em {@link UserPageParserBenchmark}, trocando o nome do benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class HistoryQueryBenchmark {
+
+    private static final String EXISTS_SQL =
+            "SELECT 1 FROM history WHERE username = ? AND action = ? AND dry_run = ? LIMIT 1";
+    private static final String LEGACY_SEARCH_SQL =
+            "SELECT * FROM history WHERE (? IS NULL OR username = ?) AND (? IS NULL OR action = ?) "
+                    + "AND (? IS NULL OR timestamp >= ?) AND dry_run = 0";
+    private static final String DYNAMIC_SEARCH_SQL =
+            "SELECT * FROM history WHERE action = ? AND dry_run = 0 AND timestamp >= ?";
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Path dir;
+    private Connection connection;
+    private String sinceIso;
+    private String probeUser;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("history-query-bench");
+        SQLiteDataSource ds = new SQLiteDataSource();
+        ds.setUrl("jdbc:sqlite:" + dir.resolve("bench.db"));
+        connection = ds.getConnection();
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE history (id TEXT PRIMARY KEY, username TEXT NOT NULL, action TEXT NOT NULL, "
+                    + "timestamp TEXT NOT NULL, source_list_id TEXT NULL, dry_run INTEGER NOT NULL DEFAULT 0)");
+        }
+        // 50k usuários, ações alternadas, 1/4 dry-run, timestamps espalhados em ~1 ano (1 linha a cada 30s)
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO history VALUES (?, ?, ?, ?, NULL, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                ps.setString(1, "id-" + i);
+                ps.setString(2, "user" + (i % 50_000));
+                ps.setString(3, i % 2 == 0 ? "unfollow" : "follow");
+                ps.setString(4, base.plusSeconds(i * 30L).toString());
+                ps.setInt(5, i % 4 == 0 ? 1 : 0);
+                ps.addBatch();
+                if (i % 10_000 == 9_999) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        if (indexed) {
+            String ddl = Files.readString(Path.of("src/main/resources/db/migration/V4__history_indexes.sql"));
+            try (Statement st = connection.createStatement()) {
+                for (String sql : ddl.split(";")) {
+                    String stmt = sql.lines().filter(l -> !l.startsWith("--")).reduce("", (a, b) -> a + "\n" + b);
+                    if (!stmt.isBlank()) st.execute(stmt);
+                }
+                st.execute("ANALYZE");
+            }
+        }
+        // últimos ~1% das linhas
+        sinceIso = base.plusSeconds((long) (rows * 0.99) * 30L).toString();
+        probeUser = "user12345";
+
+        explain("exists", EXISTS_SQL.replaceFirst("\\?", "'" + probeUser + "'").replaceFirst("\\?", "'follow'").replaceFirst("\\?", "0"));
+        explain("legacySearch", LEGACY_SEARCH_SQL.replace("?", "NULL").replaceFirst("NULL IS NULL OR action = NULL", "'unfollow' IS NULL OR action = 'unfollow'")
+                .replaceFirst("NULL IS NULL OR timestamp >= NULL", "'" + sinceIso + "' IS NULL OR timestamp >= '" + sinceIso + "'"));
+        explain("dynamicSearch", DYNAMIC_SEARCH_SQL.replaceFirst("\\?", "'unfollow'").replaceFirst("\\?", "'" + sinceIso + "'"));
+    }
+
+    private void explain(String label, String sql) throws Exception {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) plan.append(rs.getString("detail")).append("; ");
+            System.out.println("[plan indexed=" + indexed + "] " + label + ": " + plan);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        connection.close();
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public boolean exists() throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(EXISTS_SQL)) {
+            ps.setString(1, probeUser);
+            ps.setString(2, "follow");
+            ps.setInt(3, 0);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @Benchmark
+    public int legacySearch() throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(LEGACY_SEARCH_SQL)) {
+            ps.setString(1, null);
+            ps.setString(2, null);
+            ps.setString(3, "unfollow");
+            ps.setString(4, "unfollow");
+            ps.setString(5, sinceIso);
+            ps.setString(6, sinceIso);
+            return count(ps);
+        }
+    }
+
+    @Benchmark
+    public int dynamicSearch() throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(DYNAMIC_SEARCH_SQL)) {
+            ps.setString(1, "unfollow");
+            ps.setString(2, sinceIso);
+            return count(ps);
+        }
+    }
+
+    private static int count(PreparedStatement ps) throws Exception {
+        int n = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,51 @@
+package me.m41k0n.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.m41k0n.model.User;
+import me.m41k0n.service.UserPageParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o parse de uma página de 100 usuários (payload real da API, ~30 campos por usuário):
+ * caminho antigo (corpo como String + ObjectMapper.readValue com TypeReference) vs streaming
+ * ({@link UserPageParser}, JsonParser sobre os bytes extraindo só login e html_url).
+ *
+ * Executar:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main UserPageParserBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageParserBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final UserPageParser parser = new UserPageParser();
+    private byte[] page;
+
+    @Setup
+    public void setup() {
+        page = BenchData.userPageJson(100).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<User> readValueFromString() throws Exception {
+        String body = new String(page, StandardCharsets.UTF_8);
+        return mapper.readValue(body, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public List<User> streamingLoginOnly() {
+        return parser.parse(page);
+    }
+}
@@ -1,5 +1,6 @@
 package me.m41k0n.controller;
 
+import me.m41k0n.service.EnrichmentCache;
 import me.m41k0n.service.ExportService;
 import me.m41k0n.service.GitHubInsightsService;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +16,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +32,9 @@ class FilterControllerTest {
     @MockBean
     private ExportService exportService;
 
+    @MockBean
+    private EnrichmentCache enrichmentCache;
+
     @Test
     @DisplayName("GET /api/filter/evaluate returns JSON with users and counts")
     void evaluateJson() throws Exception {
@@ -88,4 +93,15 @@ class FilterControllerTest {
                 .andExpect(jsonPath("$.totalCandidates").value(30))
                 .andExpect(jsonPath("$.users[0].login").value("cold"));
     }
+
+    @Test
+    @DisplayName("DELETE /api/filter/cache?login= invalidates a single user")
+    void invalidateSingleUser() throws Exception {
+        mockMvc.perform(delete("/api/filter/cache").param("login", "octo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("octo"));
+
+        Mockito.verify(enrichmentCache).invalidate("octo");
+        Mockito.verify(enrichmentCache, Mockito.never()).invalidateAll();
+    }
 }
@@ -2,6 +2,10 @@ package me.m41k0n.controller;
 
 import me.m41k0n.model.User;
 import me.m41k0n.service.ExportService;
+import me.m41k0n.service.FollowGraphDiff;
+import me.m41k0n.service.FollowGraphSnapshotService;
+import me.m41k0n.service.GraphSnapshot;
+import me.m41k0n.service.UnfollowJobService;
 import me.m41k0n.service.GitHubService;
 import me.m41k0n.service.PreviewReport;
 import org.junit.jupiter.api.DisplayName;
@@ -13,8 +17,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +37,12 @@ class GitHubControllerTest {
     @MockBean
     private ExportService exportService;
 
+    @MockBean
+    private UnfollowJobService unfollowJobService;
+
+    @MockBean
+    private FollowGraphSnapshotService snapshotService;
+
     @Test
     @DisplayName("GET /api/non-followers/preview returns JSON with totals and users")
     void previewNonFollowersJson() throws Exception {
@@ -48,6 +61,22 @@ class GitHubControllerTest {
                 .andExpect(jsonPath("$.dryRunEnabled").value(true));
     }
 
+    @Test
+    @DisplayName("GET /api/non-followers/preview reports per-scan timings and snapshot id")
+    void previewNonFollowersTimings() throws Exception {
+        var diff = new FollowGraphDiff.Result(List.of(), List.of(), List.of());
+        var snapshot = new GraphSnapshot(7, Instant.now(), List.of(), List.of(), diff, 120, 340, 345);
+        var report = new PreviewReport(10, 12, 0, List.of(), 1, 25, snapshot);
+        Mockito.when(gitHubService.previewNonFollowers(1,25)).thenReturn(report);
+
+        mockMvc.perform(get("/api/non-followers/preview"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timings.followersMs").value(120))
+                .andExpect(jsonPath("$.timings.followingMs").value(340))
+                .andExpect(jsonPath("$.timings.totalMs").value(345))
+                .andExpect(jsonPath("$.snapshot.id").value(7));
+    }
+
     @Test
     @DisplayName("GET /api/non-followers/preview?format=csv returns CSV attachment")
     void previewNonFollowersCsvExport() throws Exception {
@@ -62,4 +91,22 @@ class GitHubControllerTest {
                 .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("non-followers-page-2.csv")))
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("u2")));
     }
+
+    @Test
+    @DisplayName("GET /api/non-followers/stream writes one NDJSON line per non-follower as batches arrive")
+    void streamNonFollowersNdjson() throws Exception {
+        Mockito.when(snapshotService.streamNonFollowers(Mockito.any())).thenAnswer(inv -> {
+            Consumer<List<User>> sink = inv.getArgument(0);
+            sink.accept(List.of(new User("u1", "https://github.com/u1")));
+            sink.accept(List.of(new User("u2", "https://github.com/u2")));
+            return null;
+        });
+
+        var started = mockMvc.perform(get("/api/non-followers/stream")).andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"login\":\"u1\",\"html_url\":\"https://github.com/u1\"}\n"
+                        + "{\"login\":\"u2\",\"html_url\":\"https://github.com/u2\"}\n"));
+    }
 }
@@ -0,0 +1,98 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.entity.HistoryEntity;
+import me.m41k0n.service.ExportService;
+import me.m41k0n.service.HistoryService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(HistoryController.class)
+@Import(ExportService.class)
+class HistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HistoryService historyService;
+
+    @Test
+    @DisplayName("GET /api/history/export streams CSV rows from the history cursor with the given filters")
+    void exportsCsv() throws Exception {
+        givenHistory("unfollow", Instant.parse("2025-01-01T00:00:00Z"));
+
+        MvcResult started = mockMvc.perform(get("/api/history/export")
+                        .param("action", "unfollow").param("since", "2025-01-01T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=history-unfollow.csv"))
+                .andExpect(content().string("username,action,timestamp,source_list_id,dry_run\n"
+                        + "octo,unfollow,2025-01-02T00:00:00Z,,0\n"
+                        + "dev,unfollow,2025-01-03T00:00:00Z,l1,0\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/history/export?format=json streams a JSON array")
+    void exportsJson() throws Exception {
+        givenHistory(null, null);
+
+        MvcResult started = mockMvc.perform(get("/api/history/export").param("format", "json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].username").value("octo"))
+                .andExpect(jsonPath("$[1].sourceListId").value("l1"));
+    }
+
+    @Test
+    @DisplayName("Invalid format or since is rejected with 400 before streaming starts")
+    void rejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/history/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BadRequest"));
+        mockMvc.perform(get("/api/history/export").param("since", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BadRequest"));
+        Mockito.verifyNoInteractions(historyService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenHistory(String action, Instant since) {
+        Mockito.doAnswer(inv -> {
+            Consumer<HistoryEntity> sink = inv.getArgument(3);
+            sink.accept(entity("octo", "2025-01-02T00:00:00Z", null));
+            sink.accept(entity("dev", "2025-01-03T00:00:00Z", "l1"));
+            return null;
+        }).when(historyService).forEach(Mockito.isNull(), Mockito.eq(action), Mockito.eq(since), Mockito.any(Consumer.class));
+    }
+
+    private static HistoryEntity entity(String username, String timestamp, String sourceListId) {
+        HistoryEntity h = new HistoryEntity();
+        h.setId(username + "-id");
+        h.setUsername(username);
+        h.setAction("unfollow");
+        h.setTimestamp(timestamp);
+        h.setSourceListId(sourceListId);
+        return h;
+    }
+}
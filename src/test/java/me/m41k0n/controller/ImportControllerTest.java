@@ -0,0 +1,115 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.ExclusionService;
+import me.m41k0n.service.HistoryService;
+import me.m41k0n.service.MutationQueue;
+import me.m41k0n.service.UnfollowJob;
+import me.m41k0n.service.UnfollowJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UnfollowJobService jobService;
+
+    @MockBean
+    private ExclusionService exclusionService;
+
+    @MockBean
+    private HistoryService historyService;
+
+    @Test
+    @DisplayName("POST /api/import/users?action=refollow schedules an IMPORT_REFOLLOW job and answers 202")
+    void refollowIsAccepted() throws Exception {
+        givenJob();
+
+        mockMvc.perform(post("/api/import/users").param("action", "refollow")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"octo\", \" dev \", \"octo\"]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("j1"))
+                .andExpect(jsonPath("$.type").value("IMPORT_REFOLLOW"))
+                .andExpect(jsonPath("$.statusUrl").value("/api/jobs/j1"))
+                .andExpect(jsonPath("$.detailsUrl").value("/api/jobs/j1/details"));
+
+        Mockito.verify(jobService).start(Mockito.eq(UnfollowJob.Type.IMPORT_REFOLLOW),
+                Mockito.eq(Map.of("received", 2, "skipProcessed", true)), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("With skipProcessed=true, users already followed per history become skip tasks and the rest follow tasks")
+    void processedUsersBecomeSkipTasks() throws Exception {
+        givenJob();
+        Mockito.when(historyService.processedUsernames(List.of("octo", "dev"), "follow")).thenReturn(Set.of("octo"));
+
+        mockMvc.perform(post("/api/import/users").param("action", "refollow").param("skipProcessed", "true")
+                        .contentType(MediaType.TEXT_PLAIN).content("login\nocto\ndev\n"))
+                .andExpect(status().isAccepted());
+
+        List<UnfollowJob.Task> tasks = capturedPrepare().get().tasks();
+        assertEquals(List.of(
+                UnfollowJob.Task.skip("octo", MutationQueue.Kind.FOLLOW, "IMPORT_REFOLLOW", "already-follow"),
+                new UnfollowJob.Task("dev", MutationQueue.Kind.FOLLOW, "IMPORT_REFOLLOW", null)), tasks);
+    }
+
+    @Test
+    @DisplayName("With skipProcessed=false, history is not consulted and every user gets a follow task")
+    void skipProcessedFalseFollowsEveryone() throws Exception {
+        givenJob();
+
+        mockMvc.perform(post("/api/import/users").param("action", "refollow").param("skipProcessed", "false")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"octo\", \"dev\"]"))
+                .andExpect(status().isAccepted());
+
+        List<UnfollowJob.Task> tasks = capturedPrepare().get().tasks();
+        assertEquals(2, tasks.size());
+        assertEquals(0, tasks.stream().filter(t -> t.skipReason() != null).count());
+        Mockito.verifyNoInteractions(historyService);
+    }
+
+    @Test
+    @DisplayName("An unknown action answers 400 without creating a job")
+    void invalidActionRejected() throws Exception {
+        mockMvc.perform(post("/api/import/users").param("action", "star")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"octo\"]"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(jobService);
+    }
+
+    private void givenJob() {
+        UnfollowJob job = Mockito.mock(UnfollowJob.class);
+        Mockito.when(job.getId()).thenReturn("j1");
+        Mockito.when(job.describeAccepted()).thenReturn(Map.of("jobId", "j1", "type", "IMPORT_REFOLLOW",
+                "status", "LOADING", "statusUrl", "/api/jobs/j1", "detailsUrl", "/api/jobs/j1/details"));
+        Mockito.when(jobService.start(Mockito.eq(UnfollowJob.Type.IMPORT_REFOLLOW), Mockito.any(), Mockito.any()))
+                .thenReturn(job);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<UnfollowJobService.Prepared> capturedPrepare() {
+        ArgumentCaptor<Supplier<UnfollowJobService.Prepared>> prepare = ArgumentCaptor.forClass(Supplier.class);
+        Mockito.verify(jobService).start(Mockito.eq(UnfollowJob.Type.IMPORT_REFOLLOW), Mockito.any(), prepare.capture());
+        return prepare.getValue();
+    }
+}
@@ -0,0 +1,102 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.service.ExportService;
+import me.m41k0n.service.ListService;
+import me.m41k0n.service.UnfollowJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ListController.class)
+class ListControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ListService listService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("GET /api/lists pages and sorts summaries, reporting the total in X-Total-Count")
+    void pagedSummaries() throws Exception {
+        Map<String, Object> row = Map.of("id", "l1", "name", "big", "count", 1200L);
+        Mockito.when(listService.findAllWithCounts(2, 1, "count", "desc"))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(1, 1), 3));
+
+        mockMvc.perform(get("/api/lists").param("page", "2").param("size", "1")
+                        .param("sort", "count").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$[0].name").value("big"))
+                .andExpect(jsonPath("$[0].count").value(1200));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/lists/{id}/items forwards only the added and removed usernames")
+    void patchItems() throws Exception {
+        Mockito.when(listService.modifyItems("l1", List.of("new"), List.of("old")))
+                .thenReturn(Map.of("id", "l1", "added", 1, "removed", 1, "count", 50000L));
+
+        mockMvc.perform(patch("/api/lists/l1/items").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"add\":[\"new\"],\"remove\":[\"old\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.count").value(50000));
+    }
+
+    @Test
+    @DisplayName("GET /api/lists/{id}?limit returns a keyset page with a next link")
+    void keysetItems() throws Exception {
+        Map<String, Object> page = new java.util.HashMap<>(Map.of("id", "l1", "items", List.of("a", "b")));
+        page.put("nextCursor", "Yg");
+        Mockito.when(listService.getPage("l1", null, 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/lists/l1?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.next").value("http://localhost/api/lists/l1?limit=2&after=Yg"))
+                .andExpect(header().string("Link", "<http://localhost/api/lists/l1?limit=2&after=Yg>; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("POST /api/lists/{id}/apply schedules a job and answers 202 with its id")
+    void applyIsAccepted() throws Exception {
+        UnfollowJob job = Mockito.mock(UnfollowJob.class);
+        Mockito.when(job.describeAccepted()).thenReturn(Map.of("jobId", "j1", "type", "LIST_APPLY",
+                "status", "LOADING", "statusUrl", "/api/jobs/j1"));
+        Mockito.when(listService.apply("l1", "follow", true)).thenReturn(job);
+
+        mockMvc.perform(post("/api/lists/l1/apply").param("action", "follow"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("j1"))
+                .andExpect(jsonPath("$.statusUrl").value("/api/jobs/j1"));
+    }
+
+    @Test
+    @DisplayName("POST /api/lists/{id}/apply rejects an unknown action before scheduling anything")
+    void applyRejectsInvalidAction() throws Exception {
+        Mockito.when(listService.apply("l1", "star", true)).thenThrow(new IllegalArgumentException("Invalid action: star"));
+
+        mockMvc.perform(post("/api/lists/l1/apply").param("action", "star"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BadRequest"));
+    }
+}
@@ -0,0 +1,103 @@
+package me.m41k0n.controller;
+
+import me.m41k0n.entity.HistoryEntity;
+import me.m41k0n.service.HistoryService;
+import me.m41k0n.service.MutationQueue;
+import me.m41k0n.service.RelationshipPlanner;
+import me.m41k0n.service.UndoService;
+import me.m41k0n.service.UnfollowJob;
+import me.m41k0n.service.UnfollowJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UndoController.class)
+@Import(UndoService.class)
+class UndoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HistoryService historyService;
+
+    @MockBean
+    private UnfollowJobService jobService;
+
+    @MockBean
+    private RelationshipPlanner planner;
+
+    @Test
+    @DisplayName("POST /api/undo schedules an UNDO job that refollows the filtered unfollows and answers 202")
+    void undoIsAccepted() throws Exception {
+        UnfollowJob job = Mockito.mock(UnfollowJob.class);
+        Mockito.when(job.describeAccepted()).thenReturn(Map.of("jobId", "j1", "type", "UNDO",
+                "status", "LOADING", "statusUrl", "/api/jobs/j1"));
+        Mockito.when(jobService.start(Mockito.eq(UnfollowJob.Type.UNDO), Mockito.any(), Mockito.any())).thenReturn(job);
+
+        mockMvc.perform(post("/api/undo").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"until\":\"2025-01-01T00:00:00Z\",\"usernames\":[\"octo\"]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("j1"))
+                .andExpect(jsonPath("$.type").value("UNDO"))
+                .andExpect(jsonPath("$.statusUrl").value("/api/jobs/j1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Supplier<UnfollowJobService.Prepared>> prepare = ArgumentCaptor.forClass(Supplier.class);
+        Mockito.verify(jobService).start(Mockito.eq(UnfollowJob.Type.UNDO),
+                Mockito.eq(Map.of("since", "2025-01-01T00:00:00Z", "usernames", 1)), prepare.capture());
+
+        Instant since = Instant.parse("2025-01-01T00:00:00Z");
+        Mockito.when(historyService.findUnfollowsSince(since)).thenReturn(List.of(unfollow("octo"), unfollow("dev")));
+        var plan = new RelationshipPlanner.Plan(RelationshipPlanner.Strategy.PER_USER_CHECKS, 1, 1, -1);
+        Mockito.when(planner.resolveFollowing(List.of("octo")))
+                .thenReturn(new RelationshipPlanner.Resolution(plan, Map.of("octo", false)));
+
+        UnfollowJobService.Prepared prepared = prepare.getValue().get();
+        assertEquals(List.of(new UnfollowJob.Task("octo", MutationQueue.Kind.FOLLOW, null, false)), prepared.tasks());
+        assertEquals(plan.describe(), prepared.plan());
+    }
+
+    @Test
+    @DisplayName("An action other than unfollow answers 400 before any job is created")
+    void invalidActionRejected() throws Exception {
+        mockMvc.perform(post("/api/undo").contentType(MediaType.APPLICATION_JSON).content("{\"action\":\"follow\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BadRequest"));
+
+        Mockito.verifyNoInteractions(jobService);
+    }
+
+    @Test
+    @DisplayName("A malformed until answers 400 before any job is created")
+    void invalidUntilRejected() throws Exception {
+        mockMvc.perform(post("/api/undo").contentType(MediaType.APPLICATION_JSON).content("{\"until\":\"yesterday\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BadRequest"));
+
+        Mockito.verifyNoInteractions(jobService);
+    }
+
+    private static HistoryEntity unfollow(String username) {
+        HistoryEntity e = new HistoryEntity();
+        e.setUsername(username);
+        e.setAction("unfollow");
+        return e;
+    }
+}
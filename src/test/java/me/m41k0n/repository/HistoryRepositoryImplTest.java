@@ -0,0 +1,76 @@
+package me.m41k0n.repository;
+
+import me.m41k0n.entity.HistoryEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HistoryRepositoryImplTest {
+
+    @TempDir
+    Path dir;
+
+    private HistoryRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("history.db"));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (String sql : Files.readString(Path.of("src/main/resources/db/migration/V1__init.sql")).split(";")) {
+            if (!sql.isBlank()) jdbc.execute(sql);
+        }
+        insert(jdbc, "1", "octo", "unfollow", "2025-01-01T00:00:00Z", 0);
+        insert(jdbc, "2", "octo", "follow", "2025-01-02T00:00:00Z", 0);
+        insert(jdbc, "3", "dev", "unfollow", "2025-01-03T00:00:00Z", 0);
+        insert(jdbc, "4", "dev", "unfollow", "2025-01-04T00:00:00Z", 1);
+        repository = new HistoryRepositoryImpl(jdbc);
+    }
+
+    @Test
+    @DisplayName("forEach applies only the given filters and always excludes dry-run rows")
+    void forEachFilters() {
+        assertEquals(List.of("1", "2", "3"), ids(null, null, null));
+        assertEquals(List.of("1", "2"), ids("octo", null, null));
+        assertEquals(List.of("1", "3"), ids(null, "unfollow", null));
+        assertEquals(List.of("2", "3"), ids(null, null, "2025-01-02T00:00:00Z"));
+        assertEquals(List.of("3"), ids("dev", "unfollow", "2025-01-02T00:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("forEach maps every column of the row")
+    void forEachMapsColumns() {
+        List<HistoryEntity> rows = new ArrayList<>();
+        repository.forEach("dev", null, null, rows::add);
+
+        HistoryEntity h = rows.get(0);
+        assertEquals("3", h.getId());
+        assertEquals("dev", h.getUsername());
+        assertEquals("unfollow", h.getAction());
+        assertEquals("2025-01-03T00:00:00Z", h.getTimestamp());
+        assertEquals("list-3", h.getSourceListId());
+        assertEquals(0, h.getDryRun());
+    }
+
+    private List<String> ids(String username, String action, String sinceIso) {
+        List<String> ids = new ArrayList<>();
+        repository.forEach(username, action, sinceIso, h -> ids.add(h.getId()));
+        ids.sort(null);
+        return ids;
+    }
+
+    private static void insert(JdbcTemplate jdbc, String id, String username, String action, String ts, int dryRun) {
+        jdbc.update("INSERT INTO history (id, username, action, timestamp, source_list_id, dry_run) VALUES (?, ?, ?, ?, ?, ?)",
+                id, username, action, ts, "list-" + id, dryRun);
+    }
+}
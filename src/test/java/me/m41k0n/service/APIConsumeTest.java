@@ -0,0 +1,112 @@
+package me.m41k0n.service;
+
+import me.m41k0n.repository.HttpCacheRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class APIConsumeTest {
+
+    private static final String URL = "https://api.github.com/user/following?per_page=100&page=1";
+    private static final String LINK = "<https://api.github.com/user/following?per_page=100&page=2>; rel=\"next\"";
+
+    private final HttpClient client = Mockito.mock(HttpClient.class);
+    private final HttpCacheRepository repository = Mockito.mock(HttpCacheRepository.class);
+    private final HttpResponseCache cache = new HttpResponseCache(repository, true, 500);
+    private final APIConsume api = new APIConsume(client, cache, new GitHubRateLimiter(0.2, 10, 3));
+
+    @Test
+    @DisplayName("A cached ETag is sent as If-None-Match and a 304 serves the cached body with its Link header")
+    void notModifiedServesCachedBody() throws Exception {
+        cache.store(URL, "\"e1\"", null, LINK, bytes("[cached]"));
+        respond(304, Map.of(), "");
+
+        ApiResponse r = api.getResponse(URL);
+
+        assertEquals("\"e1\"", sentRequest().headers().firstValue("If-None-Match").orElse(null));
+        assertTrue(r.fromCache());
+        assertEquals(200, r.statusCode());
+        assertEquals("[cached]", r.bodyAsString());
+        assertEquals(LINK, r.headers().firstValue("Link").orElse(null));
+    }
+
+    @Test
+    @DisplayName("Without an ETag the cached Last-Modified is sent as If-Modified-Since")
+    void sendsIfModifiedSince() throws Exception {
+        cache.store(URL, null, "Wed, 01 Jan 2025 00:00:00 GMT", null, bytes("[cached]"));
+        respond(304, Map.of(), "");
+
+        api.getResponse(URL);
+
+        HttpRequest sent = sentRequest();
+        assertEquals("Wed, 01 Jan 2025 00:00:00 GMT", sent.headers().firstValue("If-Modified-Since").orElse(null));
+        assertTrue(sent.headers().firstValue("If-None-Match").isEmpty());
+    }
+
+    @Test
+    @DisplayName("A 200 with a new ETag replaces the cached entry")
+    void freshResponseReplacesEntry() throws Exception {
+        cache.store(URL, "\"e1\"", null, LINK, bytes("[old]"));
+        respond(200, Map.of("ETag", "\"e2\""), "[new]");
+
+        ApiResponse r = api.getResponse(URL);
+
+        assertFalse(r.fromCache());
+        assertEquals("[new]", r.bodyAsString());
+        HttpResponseCache.Entry e = cache.lookup(URL);
+        assertEquals("\"e2\"", e.etag());
+        assertEquals("[new]", new String(e.body(), StandardCharsets.UTF_8));
+        assertNull(e.link());
+    }
+
+    @Test
+    @DisplayName("The in-memory level evicts the least recently used entry")
+    void evictsLeastRecentlyUsed() {
+        Mockito.when(repository.findById(Mockito.anyString())).thenReturn(Optional.empty());
+        HttpResponseCache small = new HttpResponseCache(repository, true, 2);
+        small.store("a", "\"a\"", null, null, bytes("a"));
+        small.store("b", "\"b\"", null, null, bytes("b"));
+        small.lookup("a");
+        small.store("c", "\"c\"", null, null, bytes("c"));
+
+        assertNotNull(small.lookup("a"));
+        assertNotNull(small.lookup("c"));
+        assertNull(small.lookup("b"));
+        Mockito.verify(repository, Mockito.never()).findById("a");
+        Mockito.verify(repository).findById("b");
+    }
+
+    private void respond(int status, Map<String, String> headers, String body) throws Exception {
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> response = Mockito.mock(HttpResponse.class);
+        Map<String, List<String>> map = new HashMap<>();
+        headers.forEach((k, v) -> map.put(k, List.of(v)));
+        Mockito.when(response.statusCode()).thenReturn(status);
+        Mockito.when(response.headers()).thenReturn(HttpHeaders.of(map, (k, v) -> true));
+        Mockito.when(response.body()).thenReturn(bytes(body));
+        Mockito.doReturn(response).when(client).send(Mockito.any(), Mockito.any());
+    }
+
+    private HttpRequest sentRequest() throws Exception {
+        ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(client).send(captor.capture(), Mockito.any());
+        return captor.getValue();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+package me.m41k0n.service;
+
+import me.m41k0n.repository.EnrichmentCacheRepository;
+import me.m41k0n.service.UserGraphBatchLoader.Field;
+import me.m41k0n.service.UserGraphBatchLoader.GraphInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnrichmentCacheTest {
+
+    private final UserGraphBatchLoader loader = Mockito.mock(UserGraphBatchLoader.class);
+    private final EnrichmentCacheRepository repository = Mockito.mock(EnrichmentCacheRepository.class);
+    private final EnrichmentCache cache =
+            new EnrichmentCache(loader, repository, true, 100, 86400, 21600, 604800, 3600, 3600);
+
+    @Test
+    @DisplayName("Second run is served from memory without calling GitHub")
+    void repeatedRunHitsCache() {
+        GraphInfo info = new GraphInfo(null, 3, 1, Set.of("Java"), false, true, null, 5);
+        Mockito.when(repository.findAllById(Mockito.any())).thenReturn(List.of());
+        Mockito.when(loader.load(Mockito.anyList(), Mockito.anySet()))
+                .thenReturn(new UserGraphBatchLoader.Batch(Map.of("octo", info), Map.of()));
+
+        cache.load(List.of("octo"));
+        var second = cache.load(List.of("octo"));
+
+        assertEquals(3, second.infos().get("octo").followersCount());
+        Mockito.verify(loader, Mockito.times(1)).load(Mockito.anyList(), Mockito.anySet());
+        assertEquals(1L, cache.stats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("Only fields past their own TTL are flagged as stale")
+    void perFieldTtl() {
+        Instant now = Instant.now();
+        Map<Field, Instant> at = new EnumMap<>(Field.class);
+        for (Field f : Field.values()) at.put(f, now.minus(Duration.ofHours(2)));
+        var entry = new EnrichmentCache.Entry(1, 1, null, Set.of(), false, true, null, 0, at);
+
+        Map<Field, Duration> ttl = new EnumMap<>(Field.class);
+        for (Field f : Field.values()) ttl.put(f, Duration.ofDays(1));
+        ttl.put(Field.ACTIVITY, Duration.ofHours(1));
+
+        assertEquals(EnumSet.of(Field.ACTIVITY), entry.stale(ttl, now));
+    }
+}
@@ -0,0 +1,43 @@
+package me.m41k0n.service;
+
+import me.m41k0n.entity.ListEntity;
+import me.m41k0n.repository.ListItemRepository;
+import me.m41k0n.repository.ListRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExclusionServiceTest {
+
+    private final ListRepository listRepository = Mockito.mock(ListRepository.class);
+    private final ListItemRepository itemRepository = Mockito.mock(ListItemRepository.class);
+    private final ExclusionService service = new ExclusionService(listRepository, itemRepository);
+
+    @Test
+    @DisplayName("Exclusions are served from the in-memory snapshot until a write invalidates it")
+    void snapshotReusedUntilWrite() {
+        ListEntity list = Mockito.mock(ListEntity.class);
+        Mockito.when(list.getId()).thenReturn("ex");
+        Mockito.when(listRepository.findByName("EXCLUDE_NEXT_RUN")).thenReturn(Optional.of(list));
+        Mockito.when(itemRepository.findUsernamesByListId("ex")).thenReturn(List.of("a"), List.of("a", "b"));
+        Mockito.when(itemRepository.insertIgnoringDuplicates(Mockito.eq("ex"), Mockito.anyCollection())).thenReturn(1);
+
+        var first = service.snapshot();
+        assertSame(first, service.snapshot());
+        assertTrue(service.allUsernames().contains("a"));
+        Mockito.verify(itemRepository, Mockito.times(1)).findUsernamesByListId("ex");
+
+        assertEquals(1, service.addAll(List.of("b", "b", " ")));
+        Mockito.verify(itemRepository).insertIgnoringDuplicates("ex", Set.of("b"));
+
+        var second = service.snapshot();
+        assertTrue(second.version() > first.version());
+        assertEquals(Set.of("a", "b"), second.usernames());
+    }
+}
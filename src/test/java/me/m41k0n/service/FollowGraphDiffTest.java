@@ -0,0 +1,59 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FollowGraphDiffTest {
+
+    @Test
+    @DisplayName("Splits following into non-followers and mutuals, keeping order, and finds followers not followed back")
+    void computesAllSidesInOrder() {
+        List<User> followers = List.of(user("b"), user("x"), user("d"));
+        List<User> following = List.of(user("a"), user("b"), user("c"), user("d"));
+
+        FollowGraphDiff.Result r = FollowGraphDiff.compute(followers, following);
+
+        assertEquals(List.of(user("a"), user("c")), r.nonFollowers());
+        assertEquals(List.of(user("b"), user("d")), r.mutuals());
+        assertEquals(List.of(user("x")), r.notFollowedBack());
+    }
+
+    @Test
+    @DisplayName("Matches on login only, ignoring html_url differences")
+    void matchesOnLogin() {
+        List<User> followers = List.of(new User("a", null));
+        List<User> following = List.of(new User("a", "https://github.com/a"));
+
+        FollowGraphDiff.Result r = FollowGraphDiff.compute(followers, following);
+
+        assertEquals(0, r.nonFollowers().size());
+        assertEquals(1, r.mutuals().size());
+    }
+
+    @Test
+    @DisplayName("Snapshot and diff lists are immutable copies of the loaded pages")
+    void snapshotListsAreImmutable() {
+        List<User> following = new ArrayList<>(List.of(user("a"), user("b")));
+        List<User> followers = new ArrayList<>(List.of(user("b")));
+        GraphSnapshot s = new GraphSnapshot(1, Instant.now(), followers, following,
+                FollowGraphDiff.compute(followers, following), 0, 0, 0);
+
+        following.clear();
+
+        assertEquals(2, s.following().size());
+        assertThrows(UnsupportedOperationException.class, () -> s.followers().clear());
+        assertThrows(UnsupportedOperationException.class, () -> s.diff().nonFollowers().add(user("z")));
+    }
+
+    private static User user(String login) {
+        return new User(login, "https://github.com/" + login);
+    }
+}
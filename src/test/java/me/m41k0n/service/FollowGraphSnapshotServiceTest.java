@@ -0,0 +1,101 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FollowGraphSnapshotServiceTest {
+
+    private final FollowGraphLoader loader = Mockito.mock(FollowGraphLoader.class);
+    private final GraphChangeDetector detector = Mockito.mock(GraphChangeDetector.class);
+    private final FollowGraphSnapshotService service = new FollowGraphSnapshotService(loader, detector, true, 300);
+
+    private final List<User> followers = List.of(new User("a", null));
+    private final List<User> following = List.of(new User("a", null), new User("x", null));
+
+    @Test
+    @DisplayName("An invalidated snapshot is renewed without rescanning when nothing changed, and only the changed side is reloaded otherwise")
+    void revalidatesInsteadOfRescanning() {
+        Mockito.when(loader.load()).thenReturn(new FollowGraphLoader.FollowGraph(followers, following, 1, 1, 1));
+        GraphSnapshot first = service.current();
+
+        service.invalidate();
+        Mockito.when(detector.check(first)).thenReturn(check(GraphChangeDetector.Change.NONE));
+        GraphSnapshot renewed = service.current();
+        assertEquals(first.version(), renewed.version());
+        assertSame(first.following(), renewed.following());
+
+        service.invalidate();
+        List<User> afterUnfollow = List.of(new User("a", null));
+        Mockito.when(detector.check(renewed)).thenReturn(check(GraphChangeDetector.Change.FOLLOWING));
+        Mockito.when(loader.reloadFollowing(followers))
+                .thenReturn(new FollowGraphLoader.FollowGraph(followers, afterUnfollow, 0, 1, 1));
+        GraphSnapshot reloaded = service.current();
+
+        assertTrue(reloaded.version() > first.version());
+        assertTrue(reloaded.diff().nonFollowers().isEmpty());
+        Mockito.verify(loader, Mockito.times(1)).load();
+        Mockito.verify(loader, Mockito.never()).reloadFollowers(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Own writes override the snapshot until a newer snapshot is published")
+    void ownWritesOverlayTheSnapshot() {
+        assertNull(service.isFollowing("x"));
+        Mockito.when(loader.load()).thenReturn(new FollowGraphLoader.FollowGraph(followers, following, 1, 1, 1));
+        service.current();
+        assertTrue(service.isFollowing("x"));
+        assertFalse(service.isFollowing("nobody"));
+
+        service.recordWrite("x", false);
+        service.recordWrite("nobody", true);
+        assertFalse(service.isFollowing("x"));
+        assertTrue(service.isFollowing("nobody"));
+
+        Mockito.when(loader.load()).thenReturn(new FollowGraphLoader.FollowGraph(followers, List.of(new User("a", null)), 1, 1, 1));
+        service.refresh();
+        assertFalse(service.isFollowing("x"));
+        assertFalse(service.isFollowing("nobody"));
+    }
+
+    @Test
+    @DisplayName("A streamed scan is not published over a newer snapshot")
+    void streamDoesNotOverwriteNewerSnapshot() {
+        Mockito.when(loader.load()).thenReturn(new FollowGraphLoader.FollowGraph(followers, List.of(new User("a", null)), 1, 1, 1));
+        Mockito.when(loader.streamNonFollowers(Mockito.any())).thenAnswer(inv -> {
+            service.refresh();
+            return new FollowGraphLoader.FollowGraph(followers, following, 1, 1, 1);
+        });
+
+        service.streamNonFollowers(users -> {});
+
+        GraphSnapshot s = service.fresh();
+        assertNotNull(s);
+        assertTrue(s.diff().nonFollowers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A write recorded during a streamed scan keeps the graph invalidated")
+    void writeDuringStreamKeepsSnapshotStale() throws Exception {
+        Mockito.when(loader.streamNonFollowers(Mockito.any())).thenAnswer(inv -> {
+            Thread.sleep(2);
+            service.recordWrite("x", false);
+            return new FollowGraphLoader.FollowGraph(followers, following, 1, 1, 1);
+        });
+
+        service.streamNonFollowers(users -> {});
+
+        assertNull(service.fresh());
+        assertFalse(service.isFollowing("x"));
+    }
+
+    private static GraphChangeDetector.Check check(GraphChangeDetector.Change change) {
+        return new GraphChangeDetector.Check(change, 1, 1, 3, Instant.now());
+    }
+}
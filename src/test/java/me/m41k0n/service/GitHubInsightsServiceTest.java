@@ -0,0 +1,46 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubInsightsServiceTest {
+
+    private final GitHubService gitHubService = Mockito.mock(GitHubService.class);
+    private final EnrichmentCache graphLoader = Mockito.mock(EnrichmentCache.class);
+    private final GitHubInsightsService service = new GitHubInsightsService(gitHubService, graphLoader);
+
+    @Test
+    @DisplayName("Enrichment keeps input order, uses only the enrichment cache and isolates per-user failures")
+    void keepsOrderAndIsolatesFailures() {
+        List<User> users = new ArrayList<>();
+        Map<String, UserGraphBatchLoader.GraphInfo> infos = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            String login = "user" + i;
+            users.add(new User(login, "https://github.com/" + login));
+            if (i != 4) {
+                infos.put(login, new UserGraphBatchLoader.GraphInfo(null, i, 0, Set.of(), false, true,
+                        Instant.parse("2024-01-01T00:00:00Z"), 2));
+            }
+        }
+        Mockito.when(gitHubService.getFollowing(1, 6)).thenReturn(users);
+        Mockito.when(graphLoader.load(Mockito.anyList()))
+                .thenReturn(new UserGraphBatchLoader.Batch(infos, Map.of("user4", "boom")));
+
+        GitHubInsightsService.FilterParams p = new GitHubInsightsService.FilterParams();
+        p.page = 1; p.size = 6;
+        var result = service.evaluateFilters(p);
+
+        List<String> logins = result.users.stream().map(u -> u.login).toList();
+        assertEquals(List.of("user0", "user1", "user2", "user3", "user5"), logins);
+        assertEquals(2, result.users.get(0).contributionsEstimate);
+        assertEquals("boom", result.enrichmentErrors.get("user4"));
+        Mockito.verify(graphLoader, Mockito.times(1)).load(Mockito.anyList());
+    }
+}
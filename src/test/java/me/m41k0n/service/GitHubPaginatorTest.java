@@ -0,0 +1,88 @@
+package me.m41k0n.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GitHubPaginatorTest {
+
+    private static final String BASE = "https://api.github.com/user/following";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final APIConsume apiConsume = Mockito.mock(APIConsume.class);
+    private final GitHubPaginator paginator = new GitHubPaginator(apiConsume, executor);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Reads rel=\"last\" and returns pages in order")
+    void fetchesAllPagesInOrder() {
+        String link = "<" + BASE + "?per_page=2&page=2>; rel=\"next\", <" + BASE + "?per_page=2&page=3>; rel=\"last\"";
+        ApiResponse first = response("a,b", link);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 1))).thenReturn(first);
+        ApiResponse second = response("c,d", null);
+        ApiResponse third = response("e", null);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 2))).thenReturn(second);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 3))).thenReturn(third);
+
+        List<String> all = paginator.fetchAll(BASE, 2, "following", GitHubPaginatorTest::split);
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), all);
+    }
+
+    @Test
+    @DisplayName("Without Link header, keeps fetching sequentially until a short page")
+    void fallsBackToSequentialWithoutLink() {
+        ApiResponse first = response("a,b", null);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 1))).thenReturn(first);
+        ApiResponse second = response("c,d", null);
+        ApiResponse third = response("", null);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 2))).thenReturn(second);
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 3))).thenReturn(third);
+
+        List<String> all = paginator.fetchAll(BASE, 2, "followers", GitHubPaginatorTest::split);
+
+        assertEquals(List.of("a", "b", "c", "d"), all);
+    }
+
+    @Test
+    @DisplayName("forEachPage hands every page to the callback with its original page number")
+    void streamsPagesAsTheyArrive() {
+        String link = "<" + BASE + "?per_page=2&page=3>; rel=\"last\"";
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 1))).thenReturn(response("a,b", link));
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 2))).thenReturn(response("c,d", null));
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(BASE, 2, 3))).thenReturn(response("e", null));
+
+        Map<Integer, List<String>> pages = new TreeMap<>();
+        paginator.forEachPage(BASE, 2, "following", GitHubPaginatorTest::split,
+                page -> assertNull(pages.put(page.number(), page.items())));
+
+        assertEquals(Map.of(1, List.of("a", "b"), 2, List.of("c", "d"), 3, List.of("e")), pages);
+    }
+
+    private static List<String> split(byte[] bytes) {
+        String body = new String(bytes, StandardCharsets.UTF_8);
+        return body.isEmpty() ? List.of() : Arrays.asList(body.split(","));
+    }
+
+    private static ApiResponse response(String body, String link) {
+        Map<String, List<String>> headers = link == null ? Map.of() : Map.of("Link", List.of(link));
+        return new ApiResponse(200, body.getBytes(StandardCharsets.UTF_8), HttpHeaders.of(headers, (k, v) -> true), false);
+    }
+}
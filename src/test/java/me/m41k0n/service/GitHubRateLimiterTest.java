@@ -0,0 +1,56 @@
+package me.m41k0n.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubRateLimiterTest {
+
+    private final GitHubRateLimiter limiter = new GitHubRateLimiter(0.2, 10, 3);
+
+    @Test
+    @DisplayName("Reads X-RateLimit-* headers into the REST budget")
+    void tracksRestBudget() {
+        long reset = Instant.now().plusSeconds(600).getEpochSecond();
+        boolean retry = limiter.onResponse(GitHubRateLimiter.Resource.REST, 200, headers(Map.of(
+                "X-RateLimit-Limit", "5000",
+                "X-RateLimit-Remaining", "4321",
+                "X-RateLimit-Reset", String.valueOf(reset))));
+
+        assertFalse(retry);
+        @SuppressWarnings("unchecked")
+        var rest = (Map<String, Object>) limiter.status().get("rest");
+        assertEquals(4321, rest.get("remaining"));
+        assertEquals(Instant.ofEpochSecond(reset).toString(), rest.get("resetAt"));
+        assertEquals(false, rest.get("pacing"));
+    }
+
+    @Test
+    @DisplayName("429 with Retry-After asks for a retry and blocks the resource")
+    void retryAfterBlocks() {
+        boolean retry = limiter.onResponse(GitHubRateLimiter.Resource.REST, 429, headers(Map.of("Retry-After", "30")));
+
+        assertTrue(retry);
+        @SuppressWarnings("unchecked")
+        var rest = (Map<String, Object>) limiter.status().get("rest");
+        assertNotNull(rest.get("blockedUntil"));
+    }
+
+    @Test
+    @DisplayName("Plain 403 (permission) is not treated as rate limiting")
+    void plainForbiddenIsNotRetried() {
+        assertFalse(limiter.onResponse(GitHubRateLimiter.Resource.REST, 403, headers(Map.of("X-RateLimit-Remaining", "100"))));
+    }
+
+    private static HttpHeaders headers(Map<String, String> values) {
+        Map<String, List<String>> map = new java.util.HashMap<>();
+        values.forEach((k, v) -> map.put(k, List.of(v)));
+        return HttpHeaders.of(map, (k, v) -> true);
+    }
+}
@@ -0,0 +1,78 @@
+package me.m41k0n.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitHubServiceTest {
+
+    private final APIConsume apiConsume = Mockito.mock(APIConsume.class);
+    private final FollowGraphSnapshotService snapshotService = Mockito.mock(FollowGraphSnapshotService.class);
+    private final DryRunService dryRunService = Mockito.mock(DryRunService.class);
+    private final HistoryService historyService = Mockito.mock(HistoryService.class);
+    private final EnrichmentCache enrichmentCache = Mockito.mock(EnrichmentCache.class);
+    private final MutationQueue queue = new MutationQueue(apiConsume, 60_000, 0, 1, 1, 0, 100);
+    private final GitHubService service = new GitHubService(apiConsume, snapshotService, Mockito.mock(UserPageParser.class),
+            dryRunService, historyService, Mockito.mock(ExclusionService.class), Mockito.mock(EmailService.class),
+            queue, enrichmentCache);
+
+    @Test
+    @DisplayName("Dead letters are retried for real, and only the accepted ones leave the list")
+    void retryKeepsFailedEntries() {
+        deadLetter("a");
+        deadLetter("b");
+        deadLetter("c");
+        Mockito.when(apiConsume.mutate("PUT", url("a"))).thenReturn(response(204));
+        Mockito.when(apiConsume.mutate("PUT", url("b"))).thenReturn(response(422));
+        Mockito.when(snapshotService.isFollowing("c")).thenThrow(new RuntimeException("boom"));
+
+        Map<String, Object> r = service.retryDeadLetters();
+
+        assertEquals(1, r.get("applied"));
+        assertEquals(2, r.get("failed"));
+        assertEquals(List.of("b", "c"), queue.deadLetters().stream().map(MutationQueue.DeadLetter::username).sorted().toList());
+        Mockito.verify(historyService).record("a", "follow", false, "l1");
+    }
+
+    @Test
+    @DisplayName("Retrying dead letters is refused while dry-run is on, keeping every entry")
+    void retryRefusedInDryRun() {
+        deadLetter("a");
+        Mockito.when(dryRunService.isDryRunEnabled()).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, service::retryDeadLetters);
+        assertEquals(1, queue.deadLetters().size());
+    }
+
+    @Test
+    @DisplayName("A 404 on unfollow is reported as already in state, without history or dead letter")
+    void unfollowNotFound() {
+        Mockito.when(snapshotService.isFollowing("gone")).thenReturn(null);
+        Mockito.when(apiConsume.mutate("DELETE", url("gone"))).thenReturn(response(404));
+
+        assertEquals(GitHubService.Outcome.ALREADY_IN_STATE, service.unfollow("gone", null, null, false));
+
+        Mockito.verify(snapshotService).recordWrite("gone", false);
+        Mockito.verifyNoInteractions(historyService);
+        assertTrue(queue.deadLetters().isEmpty());
+    }
+
+    private void deadLetter(String username) {
+        Mockito.when(apiConsume.mutate("PUT", url(username))).thenReturn(response(404));
+        assertThrows(RuntimeException.class, () -> queue.execute(MutationQueue.Kind.FOLLOW, username, "l1"));
+    }
+
+    private static String url(String username) {
+        return "https://api.github.com/user/following/" + username;
+    }
+
+    private static ApiResponse response(int status) {
+        return new ApiResponse(status, new byte[0], HttpHeaders.of(Map.of(), (k, v) -> true), false);
+    }
+}
@@ -0,0 +1,80 @@
+package me.m41k0n.service;
+
+import me.m41k0n.GitHubURL;
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GraphChangeDetectorTest {
+
+    private final APIConsume apiConsume = Mockito.mock(APIConsume.class);
+    private final GraphChangeDetector detector = new GraphChangeDetector(apiConsume, new UserPageParser());
+
+    private final List<User> followers = List.of(new User("a", null), new User("b", null));
+    private final List<User> following = List.of(new User("x", null));
+    private final GraphSnapshot snapshot = new GraphSnapshot(1, Instant.now(), followers, following,
+            FollowGraphDiff.compute(followers, following), 0, 0, 0);
+
+    @Test
+    @DisplayName("Same totals and same first pages mean no rescan")
+    void unchanged() {
+        stubUser(2, 1);
+        stubFirstPage(GitHubURL.FOLLOWERS, "a", "b");
+        stubFirstPage(GitHubURL.FOLLOWING, "x");
+
+        var check = detector.check(snapshot);
+
+        assertEquals(GraphChangeDetector.Change.NONE, check.change());
+        assertEquals(3, check.requests());
+    }
+
+    @Test
+    @DisplayName("A changed total flags that side without probing its first page")
+    void followingCountChanged() {
+        stubUser(2, 0);
+        stubFirstPage(GitHubURL.FOLLOWERS, "a", "b");
+
+        var check = detector.check(snapshot);
+
+        assertEquals(GraphChangeDetector.Change.FOLLOWING, check.change());
+        assertEquals(2, check.requests());
+    }
+
+    @Test
+    @DisplayName("Same total but a new entry on the first page (follow + unfollow) is still a change")
+    void sameCountDifferentMembers() {
+        stubUser(2, 1);
+        stubFirstPage(GitHubURL.FOLLOWERS, "c", "a");
+        stubFirstPage(GitHubURL.FOLLOWING, "x");
+
+        assertEquals(GraphChangeDetector.Change.FOLLOWERS, detector.check(snapshot).change());
+    }
+
+    private void stubUser(int followers, int following) {
+        Mockito.when(apiConsume.getResponse(GitHubURL.USER.getUrl()))
+                .thenReturn(response("{\"login\":\"me\",\"followers\":" + followers + ",\"following\":" + following + "}"));
+    }
+
+    private void stubFirstPage(GitHubURL url, String... logins) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < logins.length; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"login\":\"").append(logins[i]).append("\"}");
+        }
+        Mockito.when(apiConsume.getResponse(GitHubPaginator.pagedUrl(url.getUrl(), GraphChangeDetector.PROBE_PAGE_SIZE, 1)))
+                .thenReturn(response(body.append(']').toString()));
+    }
+
+    private static ApiResponse response(String body) {
+        return new ApiResponse(200, body.getBytes(StandardCharsets.UTF_8), HttpHeaders.of(Map.of(), (k, v) -> true), true);
+    }
+}
@@ -0,0 +1,141 @@
+package me.m41k0n.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoryRecorderTest {
+
+    @TempDir
+    Path dir;
+
+    private SQLiteDataSource dataSource;
+    private HistoryRecorder recorder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("history.db"));
+        String schema = Files.readString(Path.of("src/main/resources/db/migration/V1__init.sql"));
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            for (String sql : schema.split(";")) {
+                if (!sql.isBlank()) st.execute(sql);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) recorder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Write-behind rows become visible after flush")
+    void flushWritesQueuedRows() throws Exception {
+        recorder = new HistoryRecorder(dataSource, true, 50, 10_000, 1000);
+        for (int i = 0; i < 120; i++) recorder.record("user" + i, "unfollow", i % 2 == 0, null);
+
+        recorder.flush();
+
+        assertEquals(120, count());
+        assertEquals(0, recorder.pending());
+    }
+
+    @Test
+    @DisplayName("Background writer flushes after flush-ms without an explicit flush")
+    void backgroundFlush() throws Exception {
+        recorder = new HistoryRecorder(dataSource, true, 500, 20, 1000);
+        recorder.record("octo", "follow", false, null);
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (count() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+
+        assertEquals(1, count());
+    }
+
+    @Test
+    @DisplayName("Synchronous mode writes each record immediately; shutdown drains the queue")
+    void synchronousModeAndShutdown() throws Exception {
+        HistoryRecorder sync = new HistoryRecorder(dataSource, false, 50, 50, 1000);
+        sync.record("octo", "follow", false, null);
+        assertEquals(1, count());
+
+        recorder = new HistoryRecorder(dataSource, true, 500, 60_000, 1000);
+        recorder.record("dev", "unfollow", false, null);
+        recorder.shutdown();
+        recorder = null;
+        assertEquals(2, count());
+    }
+
+    @Test
+    @DisplayName("A batch that fails once (SQLITE_BUSY) is retried and no row is lost")
+    void retriesFailedBatch() throws Exception {
+        SQLiteDataSource busyOnce = Mockito.spy(dataSource);
+        Mockito.doThrow(new SQLException("[SQLITE_BUSY] The database file is locked"))
+                .doCallRealMethod()
+                .when(busyOnce).getConnection();
+        recorder = new HistoryRecorder(busyOnce, true, 50, 60_000, 1000);
+        for (int i = 0; i < 120; i++) recorder.record("user" + i, "unfollow", false, null);
+
+        recorder.flush();
+
+        assertEquals(120, count());
+        assertEquals(0, recorder.pending());
+    }
+
+    @Test
+    @DisplayName("Rows that cannot be written stay pending and are written by the next flush")
+    void keepsRowsWhileDatabaseIsUnavailable() throws Exception {
+        SQLiteDataSource flaky = Mockito.spy(dataSource);
+        Mockito.doThrow(new SQLException("[SQLITE_BUSY] The database file is locked")).when(flaky).getConnection();
+        recorder = new HistoryRecorder(flaky, true, 50, 60_000, 1000);
+        for (int i = 0; i < 3; i++) recorder.record("user" + i, "unfollow", false, null);
+
+        recorder.flush();
+        assertEquals(0, count());
+        assertEquals(3, recorder.pending());
+
+        Mockito.doCallRealMethod().when(flaky).getConnection();
+        recorder.flush();
+        assertEquals(3, count());
+        assertEquals(0, recorder.pending());
+    }
+
+    @Test
+    @DisplayName("Synchronous mode retries and then reports the failure to the caller")
+    void synchronousModeThrows() throws Exception {
+        SQLiteDataSource busyOnce = Mockito.spy(dataSource);
+        Mockito.doThrow(new SQLException("[SQLITE_BUSY] The database file is locked"))
+                .doCallRealMethod()
+                .when(busyOnce).getConnection();
+        new HistoryRecorder(busyOnce, false, 50, 50, 1000).record("octo", "follow", false, null);
+        assertEquals(1, count());
+
+        SQLiteDataSource down = Mockito.spy(dataSource);
+        Mockito.doThrow(new SQLException("[SQLITE_BUSY] The database file is locked")).when(down).getConnection();
+        HistoryRecorder sync = new HistoryRecorder(down, false, 50, 50, 1000);
+        assertThrows(RuntimeException.class, () -> sync.record("dev", "follow", false, null));
+    }
+
+    private int count() throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM history")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package me.m41k0n.service;
+
+import me.m41k0n.entity.HistoryEntity;
+import me.m41k0n.repository.HistoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryServiceTest {
+
+    private final HistoryRepository repository = Mockito.mock(HistoryRepository.class);
+    private final HistoryRecorder recorder = Mockito.mock(HistoryRecorder.class);
+    private final HistoryService service = new HistoryService(repository, recorder);
+
+    @Test
+    @DisplayName("Processed usernames are resolved with chunked IN queries instead of one query per user")
+    void processedUsernamesInChunks() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) usernames.add("u" + i);
+        Mockito.when(repository.findProcessedUsernames(Mockito.eq("follow"), Mockito.anyCollection()))
+                .thenAnswer(inv -> {
+                    Collection<String> chunk = inv.getArgument(1);
+                    return chunk.contains("u7") ? List.of("u7") : chunk.contains("u1100") ? List.of("u1100") : List.of();
+                });
+
+        Set<String> processed = service.processedUsernames(usernames, "follow");
+
+        assertEquals(Set.of("u7", "u1100"), processed);
+        Mockito.verify(repository, Mockito.times(3)).findProcessedUsernames(Mockito.eq("follow"), Mockito.anyCollection());
+        Mockito.verify(recorder).flush();
+    }
+
+    @Test
+    @DisplayName("A history page fetches one extra row to decide whether a next cursor exists")
+    void keysetPage() {
+        List<HistoryEntity> rows = new ArrayList<>();
+        for (int i = 3; i > 0; i--) {
+            HistoryEntity h = new HistoryEntity();
+            h.setId("id" + i);
+            h.setTimestamp("2026-01-0" + i + "T00:00:00Z");
+            rows.add(h);
+        }
+        Mockito.when(repository.searchPage(null, "follow", null, null, null, 3)).thenReturn(rows);
+
+        var page = service.searchPage(null, "follow", null, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertArrayEquals(new String[]{"2026-01-02T00:00:00Z", "id2"}, KeysetCursor.decode(page.nextCursor(), 2));
+
+        Mockito.when(repository.searchPage(null, "follow", null, "2026-01-02T00:00:00Z", "id2", 3))
+                .thenReturn(rows.subList(2, 3));
+        assertNull(service.searchPage(null, "follow", null, page.nextCursor(), 2).nextCursor());
+    }
+}
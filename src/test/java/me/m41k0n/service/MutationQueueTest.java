@@ -0,0 +1,86 @@
+package me.m41k0n.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.http.HttpHeaders;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutationQueueTest {
+
+    private static final String URL = "https://api.github.com/user/following/octo";
+
+    private final APIConsume apiConsume = Mockito.mock(APIConsume.class);
+    private final MutationQueue queue = new MutationQueue(apiConsume, 60_000, 0, 3, 1, 0, 100);
+
+    @Test
+    @DisplayName("Secondary rate limit pauses for Retry-After, slows the pace and retries the same write")
+    void retriesAfterSecondaryLimit() {
+        Mockito.when(apiConsume.mutate("PUT", URL))
+                .thenReturn(response(403, Map.of("Retry-After", "0"), "You have exceeded a secondary rate limit"))
+                .thenReturn(response(429, Map.of("Retry-After", "0"), ""))
+                .thenReturn(response(204, Map.of(), ""));
+
+        queue.execute(MutationQueue.Kind.FOLLOW, "octo", "l1");
+
+        Mockito.verify(apiConsume, Mockito.times(3)).mutate("PUT", URL);
+        Map<String, Object> status = queue.status();
+        assertEquals(2L, status.get("rateLimited"));
+        assertEquals(2L, status.get("retries"));
+        assertTrue((Long) status.get("effectivePerMinute") < (Long) status.get("perMinute"));
+        assertTrue(queue.deadLetters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Permanent failures go straight to the dead-letter list, one entry per action and user")
+    void deadLettersPermanentFailures() {
+        Mockito.when(apiConsume.mutate("PUT", URL)).thenReturn(response(404, Map.of(), ""));
+
+        assertThrows(RuntimeException.class, () -> queue.execute(MutationQueue.Kind.FOLLOW, "octo", null));
+        assertThrows(RuntimeException.class, () -> queue.execute(MutationQueue.Kind.FOLLOW, "octo", null));
+
+        Mockito.verify(apiConsume, Mockito.times(2)).mutate("PUT", URL);
+        List<MutationQueue.DeadLetter> letters = queue.deadLetters();
+        assertEquals(1, letters.size());
+        assertEquals(404, letters.get(0).lastStatus());
+        assertEquals(1, letters.get(0).attempts());
+    }
+
+    @Test
+    @DisplayName("Transient errors are retried with backoff up to max-attempts, then dead-lettered")
+    void retriesTransientErrorsUpToMaxAttempts() {
+        Mockito.when(apiConsume.mutate("PUT", URL)).thenReturn(response(502, Map.of(), ""));
+
+        assertThrows(RuntimeException.class, () -> queue.execute(MutationQueue.Kind.FOLLOW, "octo", "l1"));
+
+        Mockito.verify(apiConsume, Mockito.times(3)).mutate("PUT", URL);
+        assertEquals(3, queue.deadLetters().get(0).attempts());
+        assertEquals("l1", queue.deadLetters().get(0).sourceListId());
+
+        Mockito.when(apiConsume.mutate("PUT", URL)).thenReturn(response(204, Map.of(), ""));
+        assertTrue(queue.execute(MutationQueue.Kind.FOLLOW, "octo", "l1"));
+        assertTrue(queue.deadLetters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("404 on unfollow (deleted or renamed account) means already not following: no retry, no dead letter")
+    void unfollowNotFoundIsAlreadyInState() {
+        Mockito.when(apiConsume.mutate("DELETE", URL)).thenReturn(response(404, Map.of(), ""));
+
+        assertFalse(queue.execute(MutationQueue.Kind.UNFOLLOW, "octo", null));
+
+        Mockito.verify(apiConsume, Mockito.times(1)).mutate("DELETE", URL);
+        assertTrue(queue.deadLetters().isEmpty());
+    }
+
+    private static ApiResponse response(int status, Map<String, String> headers, String body) {
+        Map<String, List<String>> map = new HashMap<>();
+        headers.forEach((k, v) -> map.put(k, List.of(v)));
+        return new ApiResponse(status, body.getBytes(), HttpHeaders.of(map, (k, v) -> true), false);
+    }
+}
@@ -0,0 +1,53 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationshipPlannerTest {
+
+    private final FollowGraphSnapshotService snapshots = Mockito.mock(FollowGraphSnapshotService.class);
+    private final GraphChangeDetector detector = Mockito.mock(GraphChangeDetector.class);
+    private final APIConsume apiConsume = Mockito.mock(APIConsume.class);
+    private final RelationshipPlanner planner = new RelationshipPlanner(snapshots, detector, apiConsume);
+
+    @Test
+    @DisplayName("Small lists use per-user 204/404 checks, large lists a graph scan")
+    void picksCheaperStrategy() {
+        Mockito.when(detector.totals()).thenReturn(new GraphChangeDetector.Totals(900, 4000));
+        // varredura completa: 1 + 9 + 40 = 50 requisições
+        Mockito.when(apiConsume.getResponse("https://api.github.com/user/following/a")).thenReturn(status(204));
+        Mockito.when(apiConsume.getResponse("https://api.github.com/user/following/b")).thenReturn(status(404));
+
+        var small = planner.resolveFollowing(List.of("a", "b"));
+        assertEquals(RelationshipPlanner.Strategy.PER_USER_CHECKS, small.plan().strategy());
+        assertEquals(50, small.plan().scanCost());
+        assertTrue(small.isFollowing("a"));
+        assertFalse(small.isFollowing("b"));
+
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 60; i++) many.add("u" + i);
+        List<User> following = List.of(new User("u1", null));
+        Mockito.when(snapshots.current()).thenReturn(new GraphSnapshot(1, Instant.now(), List.of(), following,
+                FollowGraphDiff.compute(List.of(), following), 0, 0, 0));
+
+        var large = planner.resolveFollowing(many);
+        assertEquals(RelationshipPlanner.Strategy.FULL_SCAN, large.plan().strategy());
+        assertTrue(large.isFollowing("u1"));
+        assertFalse(large.isFollowing("u2"));
+        Mockito.verify(apiConsume, Mockito.times(2)).getResponse(Mockito.anyString());
+    }
+
+    private static ApiResponse status(int code) {
+        return new ApiResponse(code, new byte[0], HttpHeaders.of(Map.of(), (k, v) -> true), false);
+    }
+}
@@ -0,0 +1,217 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnfollowJobServiceTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final GitHubService gitHubService = Mockito.mock(GitHubService.class);
+    private final FollowGraphSnapshotService snapshotService = Mockito.mock(FollowGraphSnapshotService.class);
+    private final ExclusionService exclusionService = Mockito.mock(ExclusionService.class);
+    private final EmailService emailService = Mockito.mock(EmailService.class);
+    private final UnfollowJobService service =
+            new UnfollowJobService(gitHubService, snapshotService, exclusionService, emailService, executor, 2, 10);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void givenNonFollowers(int n) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < n; i++) users.add(new User("user" + i, "https://github.com/user" + i));
+        var diff = new FollowGraphDiff.Result(users, List.of(), List.of());
+        Mockito.when(snapshotService.current())
+                .thenReturn(new GraphSnapshot(3, Instant.now(), List.of(), users, diff, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Runs the job in the background and counts done, failed and excluded users")
+    void completesWithCounters() throws Exception {
+        givenNonFollowers(6);
+        Mockito.when(exclusionService.allUsernames()).thenReturn(Set.of("user0"));
+        Mockito.when(gitHubService.unfollow(Mockito.anyString(), Mockito.isNull(), Mockito.isNull(), Mockito.anyBoolean())).thenReturn(GitHubService.Outcome.APPLIED);
+        Mockito.when(gitHubService.unfollow(Mockito.eq("user3"), Mockito.isNull(), Mockito.isNull(), Mockito.anyBoolean())).thenThrow(new RuntimeException("422"));
+
+        UnfollowJob job = service.startUnfollowNonFollowers();
+        awaitFinished(job);
+
+        assertEquals(UnfollowJob.Status.COMPLETED, job.getStatus());
+        assertEquals(6, job.getTotal());
+        assertEquals(4, job.getDone());
+        assertEquals(1, job.getFailed());
+        assertEquals(1, job.getSkippedExcluded());
+        assertEquals(3L, job.describe().get("snapshotId"));
+        Mockito.verify(gitHubService, Mockito.never()).unfollow(Mockito.eq("user0"), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Cancel stops workers before the remaining users")
+    void cancelStopsJob() throws Exception {
+        givenNonFollowers(50);
+        Mockito.when(exclusionService.allUsernames()).thenReturn(Set.of());
+        CountDownLatch firstCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(gitHubService.unfollow(Mockito.anyString(), Mockito.isNull(), Mockito.isNull(), Mockito.anyBoolean())).thenAnswer(inv -> {
+            firstCall.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return GitHubService.Outcome.APPLIED;
+        });
+
+        UnfollowJob job = service.startUnfollowNonFollowers();
+        assertTrue(firstCall.await(5, TimeUnit.SECONDS));
+        assertTrue(job.cancel());
+        release.countDown();
+        awaitFinished(job);
+
+        assertEquals(UnfollowJob.Status.CANCELLED, job.getStatus());
+        assertTrue(job.getDone() <= 2, "no more than the in-flight users should complete");
+        assertFalse(job.cancel());
+    }
+
+    @Test
+    @DisplayName("A paused job releases its pool threads so other jobs still run, and resumes where it stopped in its own dry-run mode")
+    void pausedJobDoesNotHoldThePool() throws Exception {
+        ExecutorService small = Executors.newFixedThreadPool(2);
+        try {
+            UnfollowJobService svc =
+                    new UnfollowJobService(gitHubService, snapshotService, exclusionService, emailService, small, 2, 10);
+            Mockito.when(snapshotService.current()).thenReturn(snapshot("a", 50), snapshot("b", 3));
+            Mockito.when(exclusionService.allUsernames()).thenReturn(Set.of());
+            Mockito.when(gitHubService.isDryRunEnabled()).thenReturn(true, false);
+            CountDownLatch firstCall = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Mockito.when(gitHubService.unfollow(Mockito.anyString(), Mockito.isNull(), Mockito.isNull(), Mockito.anyBoolean()))
+                    .thenAnswer(inv -> {
+                        if (inv.<String>getArgument(0).startsWith("a")) {
+                            firstCall.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                        }
+                        return GitHubService.Outcome.APPLIED;
+                    });
+
+            UnfollowJob a = svc.startUnfollowNonFollowers();
+            assertTrue(firstCall.await(5, TimeUnit.SECONDS));
+            assertTrue(svc.pause(a));
+            release.countDown();
+
+            UnfollowJob b = svc.startUnfollowNonFollowers();
+            awaitFinished(b);
+            assertEquals(UnfollowJob.Status.COMPLETED, b.getStatus());
+            assertEquals(3, b.getDone());
+            assertEquals(UnfollowJob.Status.PAUSED, a.getStatus());
+            assertTrue(a.getDone() < 50);
+
+            assertTrue(svc.resume(a));
+            awaitFinished(a);
+            assertEquals(UnfollowJob.Status.COMPLETED, a.getStatus());
+            assertEquals(50, a.getDone());
+            Mockito.verify(gitHubService, Mockito.times(50))
+                    .unfollow(Mockito.startsWith("a"), Mockito.isNull(), Mockito.isNull(), Mockito.eq(true));
+        } finally {
+            small.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelling a paused job finishes it without waiting for workers")
+    void cancelPausedJob() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        Mockito.when(snapshotService.current()).thenAnswer(inv -> {
+            loading.await(5, TimeUnit.SECONDS);
+            return snapshot("u", 5);
+        });
+        Mockito.when(exclusionService.allUsernames()).thenReturn(Set.of());
+        UnfollowJob job = service.startUnfollowNonFollowers();
+        assertTrue(service.pause(job));
+        loading.countDown();
+        awaitStatus(job, UnfollowJob.Status.PAUSED);
+
+        assertTrue(service.cancel(job));
+        awaitFinished(job);
+        assertEquals(UnfollowJob.Status.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    @DisplayName("A generic job follows/unfollows its tasks in the job's dry-run mode and reports each user and each failure")
+    void genericJobReportsDetailsAndFailures() throws Exception {
+        Mockito.when(gitHubService.isDryRunEnabled()).thenReturn(false);
+        Mockito.when(gitHubService.follow(Mockito.anyString(), Mockito.eq("l1"), Mockito.any(), Mockito.eq(false)))
+                .thenReturn(GitHubService.Outcome.APPLIED);
+        Mockito.when(gitHubService.follow(Mockito.eq("known"), Mockito.eq("l1"), Mockito.eq(true), Mockito.eq(false)))
+                .thenReturn(GitHubService.Outcome.ALREADY_IN_STATE);
+        Mockito.when(gitHubService.follow(Mockito.eq("broken"), Mockito.eq("l1"), Mockito.any(), Mockito.eq(false)))
+                .thenThrow(new RuntimeException("GitHub API follow failed with status 422"));
+        List<UnfollowJob.Task> tasks = List.of(
+                new UnfollowJob.Task("new", MutationQueue.Kind.FOLLOW, "l1", false),
+                new UnfollowJob.Task("known", MutationQueue.Kind.FOLLOW, "l1", true),
+                UnfollowJob.Task.skip("done", MutationQueue.Kind.FOLLOW, "l1", "already-follow"),
+                new UnfollowJob.Task("broken", MutationQueue.Kind.FOLLOW, "l1", null));
+
+        UnfollowJob job = service.start(UnfollowJob.Type.LIST_APPLY, Map.of("listId", "l1"),
+                () -> new UnfollowJobService.Prepared(tasks, null, Map.of("strategy", "PER_USER_CHECKS")));
+        awaitFinished(job);
+
+        assertEquals(UnfollowJob.Status.COMPLETED, job.getStatus());
+        Map<String, Object> summary = job.describe();
+        assertEquals("LIST_APPLY", summary.get("type"));
+        assertEquals(4, summary.get("processed"));
+        assertEquals(1, job.getDone());
+        assertEquals(1, job.getSkippedAlreadyInState());
+        assertEquals(1, job.getSkippedProcessed());
+        assertEquals(1, job.getFailed());
+        assertEquals(List.of(Map.of("username", "broken", "action", "follow", "error", "GitHub API follow failed with status 422")),
+                summary.get("failures"));
+        assertEquals(4, job.detailCount());
+        assertTrue(job.details(0, 10).stream().anyMatch(d -> "done".equals(d.get("username"))
+                && "already-follow".equals(d.get("skippedReason"))));
+        Mockito.verify(gitHubService, Mockito.never()).follow(Mockito.eq("done"), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        Mockito.verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("A failure while preparing the tasks finishes the job as FAILED")
+    void prepareFailureFailsJob() throws Exception {
+        UnfollowJob job = service.start(UnfollowJob.Type.UNDO, Map.of(), () -> {
+            throw new IllegalStateException("history unavailable");
+        });
+        awaitFinished(job);
+
+        assertEquals(UnfollowJob.Status.FAILED, job.getStatus());
+        assertEquals("history unavailable", job.describe().get("error"));
+    }
+
+    private static GraphSnapshot snapshot(String prefix, int n) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < n; i++) users.add(new User(prefix + i, null));
+        return new GraphSnapshot(1, Instant.now(), List.of(), users, new FollowGraphDiff.Result(users, List.of(), List.of()), 0, 0, 0);
+    }
+
+    private static void awaitStatus(UnfollowJob job, UnfollowJob.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() != status && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(status, job.getStatus());
+    }
+
+    private static void awaitFinished(UnfollowJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue(job.isFinished(), "job did not finish in time");
+    }
+}
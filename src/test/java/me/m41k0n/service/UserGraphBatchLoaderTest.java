@@ -0,0 +1,100 @@
+package me.m41k0n.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserGraphBatchLoaderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final GitHubGraphQLClient client = Mockito.mock(GitHubGraphQLClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private UserGraphBatchLoader loader(int batchSize, int maxCost) {
+        return new UserGraphBatchLoader(client, batchSize, maxCost, executor, 2);
+    }
+
+    @Test
+    @DisplayName("Groups logins into aliased queries of at most batch-size users")
+    void splitsIntoBatches() throws Exception {
+        UserGraphBatchLoader loader = loader(2, 1);
+        List<String> queries = new CopyOnWriteArrayList<>();
+        Mockito.when(client.execute(Mockito.anyString())).thenAnswer(inv -> {
+            String q = inv.getArgument(0);
+            queries.add(q);
+            JsonNode vars = mapper.readTree(q).path("variables");
+            StringBuilder data = new StringBuilder("{\"data\":{");
+            for (int i = 0; i < vars.size(); i++) {
+                if (i > 0) data.append(',');
+                data.append("\"u").append(i).append("\":{\"followers\":{\"totalCount\":").append(i + 1).append("}}");
+            }
+            return mapper.readTree(data.append("}}").toString());
+        });
+
+        var batch = loader.load(List.of("a", "b", "c"));
+
+        assertEquals(2, queries.size());
+        assertTrue(queries.stream().anyMatch(q -> q.contains("u1: user(login:$l1)")));
+        assertEquals(3, batch.infos().size());
+        assertEquals(2, batch.infos().get("b").followersCount());
+        assertEquals(1, batch.infos().get("c").followersCount());
+        assertTrue(batch.errors().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Maps per-alias errors to the matching login and keeps partial data")
+    void mapsAliasErrors() throws Exception {
+        UserGraphBatchLoader loader = loader(50, 1);
+        JsonNode resp = mapper.readTree("""
+                {"data":{"u0":{"followers":{"totalCount":5}},"u1":null},
+                 "errors":[{"type":"NOT_FOUND","path":["u1"],"message":"Could not resolve to a User with the login of 'ghost'."}]}
+                """);
+        Mockito.when(client.execute(Mockito.anyString())).thenReturn(resp);
+
+        var batch = loader.load(List.of("octo", "ghost"));
+
+        assertEquals(5, batch.infos().get("octo").followersCount());
+        assertFalse(batch.infos().containsKey("ghost"));
+        assertTrue(batch.errors().get("ghost").contains("ghost"));
+    }
+
+    @Test
+    @DisplayName("Derives last activity and contributions from the contribution calendar")
+    void readsContributionCalendar() throws Exception {
+        JsonNode resp = mapper.readTree("""
+                {"data":{"u0":{"contributionsCollection":{"contributionCalendar":{"totalContributions":12,"weeks":[
+                  {"contributionDays":[{"date":"2024-03-01","contributionCount":4},{"date":"2024-03-02","contributionCount":0}]},
+                  {"contributionDays":[{"date":"2024-03-08","contributionCount":8},{"date":"2024-03-09","contributionCount":0}]}]}}}}}
+                """);
+        Mockito.when(client.execute(Mockito.anyString())).thenReturn(resp);
+
+        var info = loader(50, 1).load(List.of("octo")).infos().get("octo");
+
+        assertEquals(12, info.contributions());
+        assertEquals(Instant.parse("2024-03-08T00:00:00Z"), info.lastActivity());
+    }
+
+    @Test
+    @DisplayName("Point-cost budget caps the batch size")
+    void costBudgetCapsBatch() {
+        assertEquals(74, UserGraphBatchLoader.maxUsersForCost(1));
+        assertEquals(74, loader(500, 1).batchSize());
+        assertEquals(10, loader(10, 3).batchSize());
+    }
+}
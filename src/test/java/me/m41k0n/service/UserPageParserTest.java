@@ -0,0 +1,41 @@
+package me.m41k0n.service;
+
+import me.m41k0n.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPageParserTest {
+
+    private final UserPageParser parser = new UserPageParser();
+
+    @Test
+    @DisplayName("Extracts login and html_url, skipping other (nested) fields")
+    void parsesLoginAndUrl() {
+        String json = """
+                [{"login":"octo","id":1,"plan":{"name":"pro","space":1},"tags":[1,[2]],"html_url":"https://github.com/octo"},
+                 {"html_url":"https://github.com/dev","site_admin":false,"login":"dev"}]
+                """;
+
+        List<User> users = parser.parse(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of(new User("octo", "https://github.com/octo"), new User("dev", "https://github.com/dev")), users);
+    }
+
+    @Test
+    @DisplayName("Empty page yields an empty list")
+    void parsesEmptyPage() {
+        assertTrue(parser.parse("[]".getBytes(StandardCharsets.UTF_8)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("GitHub error object is reported as a processing error")
+    void rejectsErrorObject() {
+        byte[] body = "{\"message\":\"Bad credentials\"}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(RuntimeException.class, () -> parser.parse(body));
+    }
+}